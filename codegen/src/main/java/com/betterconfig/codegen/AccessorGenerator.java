@@ -0,0 +1,348 @@
+package com.betterconfig.codegen;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a typed accessor class from a configuration json sample or a json schema.
+ * The accessor has a field for each top level key with a supported type (boolean, integer, number
+ * or string), which is filled from the slot of the key through a {@code com.betterconfig.ConfigSchema}.
+ * <p>In a json sample the types are inferred from the values and the defaults are {@code false},
+ * {@code 0} and {@code null}. A json schema is an object with {@code properties}, where each
+ * property has a {@code type} and an optional {@code default}.</p>
+ * <p>Usage: {@code AccessorGenerator <config or schema json> <package> <class name> <output directory>}</p>
+ */
+public class AccessorGenerator {
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+            "default", "do", "double", "else", "enum", "extends", "false", "final", "finally", "float", "for", "goto",
+            "if", "implements", "import", "instanceof", "int", "interface", "long", "native", "new", "null", "package",
+            "private", "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized",
+            "this", "throw", "throws", "transient", "true", "try", "void", "volatile", "while",
+            "from", "hashCode", "toString", "getClass", "notify", "notifyAll", "wait", "equals", "clone", "finalize"));
+
+    private final List<Property> properties;
+    private final List<String> skippedKeys;
+
+    private AccessorGenerator(List<Property> properties, List<String> skippedKeys) {
+        this.properties = properties;
+        this.skippedKeys = skippedKeys;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 4) {
+            System.err.println("Usage: AccessorGenerator <config or schema json> <package> <class name> <output directory>");
+            System.exit(1);
+        }
+
+        String json = new String(Files.readAllBytes(Paths.get(args[0])), StandardCharsets.UTF_8);
+        AccessorGenerator generator = AccessorGenerator.fromJson(json);
+        for (String key : generator.skippedKeys())
+            System.err.println("Skipped the key '" + key + "', only boolean, integer, number and string values are supported.");
+
+        generator.write(Paths.get(args[3]), args[1], args[2]);
+    }
+
+    /**
+     * Reads the keys and their types from a configuration json sample or a json schema.
+     *
+     * @param json the json sample or schema.
+     * @return the generator.
+     * @throws IllegalArgumentException when the json is not an object.
+     */
+    public static AccessorGenerator fromJson(String json) {
+        if(json == null || json.isEmpty())
+            throw new IllegalArgumentException("json is null or empty");
+
+        JsonElement root = new JsonParser().parse(json);
+        if(!root.isJsonObject())
+            throw new IllegalArgumentException("The configuration has to be a json object");
+
+        JsonObject object = root.getAsJsonObject();
+        return isSchema(object) ? fromSchema(object.getAsJsonObject("properties")) : fromSample(object);
+    }
+
+    /**
+     * Gets the keys which are not in the generated accessor because of their type.
+     *
+     * @return the skipped keys.
+     */
+    public List<String> skippedKeys() {
+        return Collections.unmodifiableList(this.skippedKeys);
+    }
+
+    /**
+     * Generates the source of the accessor class.
+     *
+     * @param packageName the package of the class, it can be empty.
+     * @param className the name of the class.
+     * @return the java source.
+     */
+    public String generate(String packageName, String className) {
+        if(packageName == null)
+            throw new IllegalArgumentException("packageName cannot be null");
+
+        if(className == null || !isIdentifier(className))
+            throw new IllegalArgumentException("className is not a valid java identifier");
+
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated by the BetterConfig accessor generator, do not edit.\n");
+        if(!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+
+        source.append("import com.betterconfig.ConfigSchema;\n")
+                .append("import com.betterconfig.ConfigSlots;\n")
+                .append("import com.betterconfig.ConfigSnapshot;\n")
+                .append("import com.betterconfig.ConfigurationProvider;\n\n")
+                .append("public final class ").append(className).append(" {\n")
+                .append("    private static final ConfigSchema<").append(className).append("> SCHEMA = new ConfigSchema<>(")
+                .append(className).append("::new");
+
+        for (Property property : this.properties)
+            source.append(",\n            ").append(literal(property.key));
+
+        source.append(");\n\n");
+
+        for (Property property : this.properties)
+            source.append("    private final ").append(property.type.javaType).append(' ').append(property.name).append(";\n");
+
+        source.append("\n    private ").append(className).append("(ConfigSlots slots) {\n");
+        for (int i = 0; i < this.properties.size(); i++) {
+            Property property = this.properties.get(i);
+            source.append("        this.").append(property.name).append(" = slots.").append(property.type.getter)
+                    .append('(').append(i).append(", ").append(property.defaultValue).append(");\n");
+        }
+
+        source.append("    }\n\n")
+                .append("    public static ").append(className).append(" from(ConfigSnapshot snapshot) {\n")
+                .append("        return SCHEMA.get(snapshot);\n")
+                .append("    }\n\n")
+                .append("    public static ").append(className).append(" from(ConfigurationProvider client) {\n")
+                .append("        return SCHEMA.get(client.getSnapshot());\n")
+                .append("    }\n");
+
+        for (Property property : this.properties) {
+            source.append("\n    public ").append(property.type.javaType).append(' ').append(property.name).append("() {\n")
+                    .append("        return this.").append(property.name).append(";\n")
+                    .append("    }\n");
+        }
+
+        return source.append("}\n").toString();
+    }
+
+    /**
+     * Writes the source of the accessor class into its package directory under the given directory.
+     *
+     * @param outputDirectory the source root of the generated classes.
+     * @param packageName the package of the class, it can be empty.
+     * @param className the name of the class.
+     * @return the path of the written source file.
+     * @throws IOException when the file can't be written.
+     */
+    public Path write(Path outputDirectory, String packageName, String className) throws IOException {
+        String source = this.generate(packageName, className);
+        Path directory = packageName.isEmpty() ? outputDirectory : outputDirectory.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(directory);
+        return Files.write(directory.resolve(className + ".java"), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isSchema(JsonObject object) {
+        JsonElement properties = object.get("properties");
+        return properties != null && properties.isJsonObject()
+                && (object.has("$schema") || "object".equals(stringOf(object.get("type"))));
+    }
+
+    private static AccessorGenerator fromSample(JsonObject sample) {
+        List<Property> properties = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Map.Entry<String, JsonElement> entry : sample.entrySet()) {
+            Type type = typeOf(entry.getValue());
+            if(type == null)
+                skipped.add(entry.getKey());
+            else
+                properties.add(new Property(entry.getKey(), uniqueName(entry.getKey(), names), type, type.zero));
+        }
+
+        return new AccessorGenerator(properties, skipped);
+    }
+
+    private static AccessorGenerator fromSchema(JsonObject schemaProperties) {
+        List<Property> properties = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Map.Entry<String, JsonElement> entry : schemaProperties.entrySet()) {
+            JsonObject schema = entry.getValue().isJsonObject() ? entry.getValue().getAsJsonObject() : new JsonObject();
+            Type type = Type.of(stringOf(schema.get("type")));
+            if(type == null) {
+                skipped.add(entry.getKey());
+                continue;
+            }
+
+            JsonElement defaultValue = schema.get("default");
+            properties.add(new Property(entry.getKey(), uniqueName(entry.getKey(), names), type,
+                    defaultValue != null && defaultValue.isJsonPrimitive() ? type.literal(defaultValue.getAsJsonPrimitive()) : type.zero));
+        }
+
+        return new AccessorGenerator(properties, skipped);
+    }
+
+    private static Type typeOf(JsonElement value) {
+        if(!value.isJsonPrimitive())
+            return null;
+
+        JsonPrimitive primitive = value.getAsJsonPrimitive();
+        if(primitive.isBoolean())
+            return Type.BOOLEAN;
+
+        if(primitive.isString())
+            return Type.STRING;
+
+        String number = primitive.getAsString();
+        try {
+            Integer.parseInt(number);
+            return Type.INTEGER;
+        } catch (NumberFormatException e) {
+            return Type.NUMBER;
+        }
+    }
+
+    private static String stringOf(JsonElement element) {
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    // converts a key like 'key-of-my-feature' to 'keyOfMyFeature'
+    private static String uniqueName(String key, Set<String> names) {
+        StringBuilder name = new StringBuilder();
+        boolean upper = false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if(!Character.isJavaIdentifierPart(c) || c == '$') {
+                upper = name.length() > 0;
+                continue;
+            }
+
+            name.append(upper ? Character.toUpperCase(c) : name.length() == 0 ? Character.toLowerCase(c) : c);
+            upper = false;
+        }
+
+        if(name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0)) || KEYWORDS.contains(name.toString()))
+            name.insert(0, '_');
+
+        String unique = name.toString();
+        for (int i = 2; !names.add(unique); i++)
+            unique = name.toString() + i;
+
+        return unique;
+    }
+
+    private static boolean isIdentifier(String name) {
+        if(name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)) || KEYWORDS.contains(name))
+            return false;
+
+        for (int i = 1; i < name.length(); i++) {
+            if(!Character.isJavaIdentifierPart(name.charAt(i)))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': literal.append("\\\""); break;
+                case '\\': literal.append("\\\\"); break;
+                case '\n': literal.append("\\n"); break;
+                case '\r': literal.append("\\r"); break;
+                case '\t': literal.append("\\t"); break;
+                default:
+                    if(c < 0x20 || c > 0x7E)
+                        literal.append(String.format("\\u%04x", (int) c));
+                    else
+                        literal.append(c);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+
+    private enum Type {
+        BOOLEAN("boolean", "getBoolean", "false"),
+        INTEGER("int", "getInt", "0"),
+        NUMBER("double", "getDouble", "0.0"),
+        STRING("String", "getString", "null");
+
+        private final String javaType;
+        private final String getter;
+        private final String zero;
+
+        Type(String javaType, String getter, String zero) {
+            this.javaType = javaType;
+            this.getter = getter;
+            this.zero = zero;
+        }
+
+        private static Type of(String schemaType) {
+            if("boolean".equals(schemaType))
+                return BOOLEAN;
+            if("integer".equals(schemaType))
+                return INTEGER;
+            if("number".equals(schemaType))
+                return NUMBER;
+            if("string".equals(schemaType))
+                return STRING;
+
+            return null;
+        }
+
+        private String literal(JsonPrimitive value) {
+            try {
+                switch (this) {
+                    case BOOLEAN:
+                        return Boolean.toString(value.getAsBoolean());
+                    case INTEGER:
+                        return Integer.toString(value.getAsInt());
+                    case NUMBER:
+                        double number = value.getAsDouble();
+                        return Double.isNaN(number) || Double.isInfinite(number) ? this.zero : Double.toString(number);
+                    default:
+                        return AccessorGenerator.literal(value.getAsString());
+                }
+            } catch (NumberFormatException e) {
+                return this.zero;
+            }
+        }
+    }
+
+    private static class Property {
+        private final String key;
+        private final String name;
+        private final Type type;
+        private final String defaultValue;
+
+        private Property(String key, String name, Type type, String defaultValue) {
+            this.key = key;
+            this.name = name;
+            this.type = type;
+            this.defaultValue = defaultValue;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.betterconfig.codegen;
+
+import com.betterconfig.ConfigSnapshot;
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessorGeneratorTest {
+    private static final String SAMPLE = "{ \"isFeatureEnabled\":true, \"max-items\":10, \"ratio\":0.5, \"title\":\"fakeTitle\", " +
+            "\"class\":\"fakeClass\", \"fakeObject\":{ \"fakeKey\":1 } }";
+
+    @Test
+    public void generatesFromSample() {
+        AccessorGenerator generator = AccessorGenerator.fromJson(SAMPLE);
+        String source = generator.generate("com.example", "AppConfig");
+
+        assertTrue(source.contains("package com.example;"));
+        assertTrue(source.contains("private final boolean isFeatureEnabled;"));
+        assertTrue(source.contains("this.maxItems = slots.getInt(1, 0);"));
+        assertTrue(source.contains("this.ratio = slots.getDouble(2, 0.0);"));
+        assertTrue(source.contains("this.title = slots.getString(3, null);"));
+        assertTrue(source.contains("public String _class()"));
+        assertEquals(Collections.singletonList("fakeObject"), generator.skippedKeys());
+    }
+
+    @Test
+    public void generatesFromSchema() {
+        String schema = "{ \"$schema\":\"http://json-schema.org/draft-07/schema#\", \"type\":\"object\", \"properties\":{ " +
+                "\"isFeatureEnabled\":{ \"type\":\"boolean\", \"default\":true }, " +
+                "\"maxItems\":{ \"type\":\"integer\", \"default\":25 }, " +
+                "\"title\":{ \"type\":\"string\", \"default\":\"fake \\\"title\\\"\" }, " +
+                "\"tags\":{ \"type\":\"array\" } } }";
+
+        AccessorGenerator generator = AccessorGenerator.fromJson(schema);
+        String source = generator.generate("", "AppConfig");
+
+        assertFalse(source.contains("package"));
+        assertTrue(source.contains("this.isFeatureEnabled = slots.getBoolean(0, true);"));
+        assertTrue(source.contains("this.maxItems = slots.getInt(1, 25);"));
+        assertTrue(source.contains("this.title = slots.getString(2, \"fake \\\"title\\\"\");"));
+        assertEquals(Collections.singletonList("tags"), generator.skippedKeys());
+    }
+
+    @Test
+    public void generatedAccessorReadsSnapshot() throws Exception {
+        Path output = Files.createTempDirectory("betterconfig-codegen");
+        Path source = AccessorGenerator.fromJson(SAMPLE).write(output, "com.example", "AppConfig");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String classpath = Paths.get(ConfigSnapshot.class.getProtectionDomain().getCodeSource().getLocation().toURI()) + File.pathSeparator
+                + Paths.get(JsonElement.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        assertEquals(0, compiler.run(null, null, null, "-classpath", classpath, "-d", output.toString(), source.toString()));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { output.toUri().toURL() }, this.getClass().getClassLoader())) {
+            Class<?> accessorClass = loader.loadClass("com.example.AppConfig");
+            Method from = accessorClass.getMethod("from", ConfigSnapshot.class);
+
+            ConfigSnapshot snapshot = ConfigSnapshot.fromJson("{ \"isFeatureEnabled\":true, \"max-items\":\"fakeText\", \"title\":\"fakeTitle\" }");
+            Object accessor = from.invoke(null, snapshot);
+
+            assertEquals(true, accessorClass.getMethod("isFeatureEnabled").invoke(accessor));
+            assertEquals(0, accessorClass.getMethod("maxItems").invoke(accessor));
+            assertEquals(0.0, accessorClass.getMethod("ratio").invoke(accessor));
+            assertEquals("fakeTitle", accessorClass.getMethod("title").invoke(accessor));
+            assertSame(accessor, from.invoke(null, snapshot));
+        }
+    }
+
+    @Test
+    public void ensuresValidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> AccessorGenerator.fromJson(null));
+        assertThrows(IllegalArgumentException.class, () -> AccessorGenerator.fromJson("[1, 2]"));
+        assertThrows(IllegalArgumentException.class, () -> AccessorGenerator.fromJson(SAMPLE).generate("com.example", "class"));
+        assertThrows(IllegalArgumentException.class, () -> AccessorGenerator.fromJson(SAMPLE).generate(null, "AppConfig"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.betterconfig;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binding of a configuration class through the {@link MethodHandleAdapterFactory} with the reflective
+ * adapter of Gson, both from a json text and from the parsed tree of a snapshot. Run it with {@code ./gradlew jmh},
+ * the recorded results are in the README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationBindingBenchmark {
+    private static final String CONFIG = "{ \"fakeString\":\"fakeValue\", \"fakeInt\":42, \"fakeLong\":1234567890123, " +
+            "\"fakeDouble\":3.14, \"fakeBoolean\":true, \"fakeList\":[\"a\", \"b\", \"c\"], " +
+            "\"fakeNested\":{ \"fakeString\":\"nestedValue\", \"fakeInt\":7 }, \"fakeOther\":\"otherValue\" }";
+
+    private final Gson reflective = new Gson();
+    private final Gson methodHandles = new GsonBuilder().registerTypeAdapterFactory(new MethodHandleAdapterFactory()).create();
+    private final JsonElement tree = new JsonParser().parse(CONFIG);
+
+    @Benchmark
+    public Sample reflectiveFromText() {
+        return this.reflective.fromJson(CONFIG, Sample.class);
+    }
+
+    @Benchmark
+    public Sample methodHandlesFromText() {
+        return this.methodHandles.fromJson(CONFIG, Sample.class);
+    }
+
+    @Benchmark
+    public Sample reflectiveFromTree() {
+        return this.reflective.fromJson(this.tree, Sample.class);
+    }
+
+    @Benchmark
+    public Sample methodHandlesFromTree() {
+        return this.methodHandles.fromJson(this.tree, Sample.class);
+    }
+
+    public static class Sample {
+        String fakeString;
+        int fakeInt;
+        long fakeLong;
+        double fakeDouble;
+        boolean fakeBoolean;
+        List<String> fakeList;
+        Nested fakeNested;
+        String fakeOther;
+    }
+
+    public static class Nested {
+        String fakeString;
+        int fakeInt;
+    }
+}
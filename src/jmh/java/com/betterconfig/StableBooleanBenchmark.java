@@ -0,0 +1,76 @@
+package com.betterconfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of a flag check in a hot loop: a plain constant, a {@link StableBoolean}
+ * invoker held in a static final field, a {@link StableBoolean} and a {@link LiveBoolean} read
+ * through the handle. Run it with {@code ./gradlew jmh}, the recorded results are in the README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StableBooleanBenchmark {
+    private static final int ITERATIONS = 1_000;
+    private static final boolean CONSTANT = false;
+    private static final LiveValues VALUES = new LiveValues();
+    private static final StableBoolean STABLE = VALUES.register(new StableBoolean("killSwitch", false), () -> null);
+    private static final MethodHandle STABLE_INVOKER = STABLE.invoker();
+    private static final LiveBoolean LIVE = VALUES.register(new LiveBoolean("killSwitch", false), () -> null);
+
+    private final int[] data = new int[ITERATIONS];
+
+    @Benchmark
+    public int baseline() {
+        int sum = 0;
+        for (int i = 0; i < ITERATIONS; i++)
+            if(!CONSTANT)
+                sum += this.data[i];
+
+        return sum;
+    }
+
+    @Benchmark
+    public int stableInvoker() throws Throwable {
+        int sum = 0;
+        for (int i = 0; i < ITERATIONS; i++)
+            if(!(boolean) STABLE_INVOKER.invokeExact())
+                sum += this.data[i];
+
+        return sum;
+    }
+
+    @Benchmark
+    public int stableHandle() {
+        int sum = 0;
+        for (int i = 0; i < ITERATIONS; i++)
+            if(!STABLE.get())
+                sum += this.data[i];
+
+        return sum;
+    }
+
+    @Benchmark
+    public int liveBoolean() {
+        int sum = 0;
+        for (int i = 0; i < ITERATIONS; i++)
+            if(!LIVE.get())
+                sum += this.data[i];
+
+        return sum;
+    }
+}
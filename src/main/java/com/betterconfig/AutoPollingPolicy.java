@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -39,32 +40,52 @@ public class AutoPollingPolicy extends RefreshPolicy {
 
         this.initialized = new AtomicBoolean(false);
         this.initFuture = new CompletableFuture<>();
+
+        // a configuration which is already cached in memory is served until the first fetch completes
+        String cached = cache.inMemoryValue();
+        if(cached != null)
+            super.loaded(super.snapshotOrNull(cached));
+
         this.scheduler = Executors.newSingleThreadScheduledExecutor();
-        this.scheduler.scheduleAtFixedRate(() -> {
-            try {
-                FetchResponse response = super.fetcher().getConfigurationJsonStringAsync().get();
-                String cached = super.cache().get();
-                String config = response.config();
-                if (response.isFetched() && !config.equals(cached)) {
-                    super.cache().set(config);
-                    this.broadcastConfigurationChanged(config);
-                }
-
-                if(!response.isFailed() && !initialized.getAndSet(true))
-                    initFuture.complete(null);
-
-            } catch (Exception e){
-                LOGGER.error("An error occurred during the scheduler poll execution", e);
+        this.scheduler.scheduleAtFixedRate(this::poll, 0, builder.autoPollIntervalInSeconds, TimeUnit.SECONDS);
+    }
+
+    private void poll() {
+        try {
+            FetchResponse response = super.fetchAsync().get();
+            if (response.isFetched() && super.isChangedAsync(response.version()).get()) {
+                super.store(response).get();
+                this.broadcastConfigurationChanged(response.config());
             }
-        }, 0, builder.autoPollIntervalInSeconds, TimeUnit.SECONDS);
+
+            if(!response.isFailed() && !initialized.getAndSet(true))
+                initFuture.complete(null);
+
+        } catch (Exception e){
+            LOGGER.error("An error occurred during the scheduler poll execution", e);
+        }
+    }
+
+    @Override
+    void sourceChanged() {
+        // the watcher can report a change while the constructor is still running
+        if(this.scheduler == null || this.scheduler.isShutdown())
+            return;
+
+        try {
+            this.scheduler.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("The policy is closed, the configuration change is ignored.");
+        }
     }
 
     @Override
     public CompletableFuture<String> getConfigurationJsonAsync() {
-        if(this.initFuture.isDone())
-            return CompletableFuture.completedFuture(super.cache().get());
+        // a cached or bootstrap configuration can be served until the first fetch completes
+        if(this.initFuture.isDone() || super.hasServableValue())
+            return super.getCachedValueAsync();
 
-        return this.initFuture.thenApplyAsync(v -> super.cache().get());
+        return this.initFuture.thenComposeAsync(v -> super.getCachedValueAsync());
     }
 
     @Override
@@ -1,10 +1,20 @@
 package com.betterconfig;
 
+import okhttp3.ConnectionPool;
+import okhttp3.Dns;
 import okhttp3.OkHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
@@ -16,6 +26,7 @@ public class BetterConfigClient implements ConfigurationProvider {
     private static final Logger LOGGER = LoggerFactory.getLogger(BetterConfigClient.class);
     private static final ConfigurationParser parser = new ConfigurationParser();
     private final RefreshPolicy refreshPolicy;
+    private final ConfigCache cache;
     private final int maxWaitTimeForSyncCallsInSeconds;
 
     private BetterConfigClient(String projectSecret, Builder builder) throws IllegalArgumentException {
@@ -23,22 +34,42 @@ public class BetterConfigClient implements ConfigurationProvider {
             throw new IllegalArgumentException("projectSecret is null or empty");
 
         this.maxWaitTimeForSyncCallsInSeconds = builder.maxWaitTimeForSyncCallsInSeconds;
+        this.cache = builder.cache;
 
-        ConfigFetcher fetcher = new ConfigFetcher(builder.httpClient == null
-                ? new OkHttpClient
+        ConfigFetcher fetcher = builder.configFile != null
+                ? new FileConfigFetcher(builder.configFile)
+                : builder.httpClient == null
+                ? new ConfigFetcher(new OkHttpClient
                     .Builder()
                     .retryOnConnectionFailure(true)
-                    .build()
-                : builder.httpClient, projectSecret);
+                    .connectionPool(new ConnectionPool(1, builder.connectionKeepAliveInSeconds, TimeUnit.SECONDS))
+                    .dns(builder.dnsCacheTtlInSeconds > 0
+                            ? new CachingDns(Dns.SYSTEM, builder.dnsCacheTtlInSeconds)
+                            : Dns.SYSTEM)
+                    .build(), projectSecret, true)
+                : new ConfigFetcher(builder.httpClient, projectSecret);
 
         ConfigCache cache = builder.cache == null
                 ? new InMemoryConfigCache()
-                : builder.cache;
+                : builder.cache instanceof InMemoryConfigCache || builder.cache instanceof TieredConfigCache
+                    ? builder.cache
+                    : new TieredConfigCache(builder.cache);
+
+        ConfigSnapshot bootstrap = builder.bootstrap != null
+                ? loadBootstrap(cache, builder.bootstrap)
+                : null;
 
         this.refreshPolicy = builder.refreshPolicy == null
                 ? AutoPollingPolicy.newBuilder()
                     .build(fetcher, cache)
                 : builder.refreshPolicy.apply(fetcher, cache);
+
+        // the bootstrap configuration is served from memory, it never overwrites the cache
+        if(bootstrap != null)
+            this.refreshPolicy.bootstrap(bootstrap);
+
+        if(builder.preConnect)
+            fetcher.preConnectAsync();
     }
 
     /**
@@ -92,6 +123,33 @@ public class BetterConfigClient implements ConfigurationProvider {
                         : this.deserializeJson(classOfT, config, defaultValue));
     }
 
+    @Override
+    public <T> T getConfiguration(ConfigType<T> type, T defaultValue) {
+        if(type == null)
+            throw new IllegalArgumentException("type cannot be null");
+
+        try {
+            return this.maxWaitTimeForSyncCallsInSeconds > 0
+                    ? this.getConfigurationAsync(type, defaultValue).get(this.maxWaitTimeForSyncCallsInSeconds, TimeUnit.SECONDS)
+                    : this.getConfigurationAsync(type, defaultValue).get();
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during deserialization.", e);
+            String latest = this.refreshPolicy.getLatestCachedValue();
+            return latest != null ? this.deserializeJson(type, latest, defaultValue) : defaultValue;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getConfigurationAsync(ConfigType<T> type, T defaultValue) {
+        if(type == null)
+            throw new IllegalArgumentException("type cannot be null");
+
+        return this.refreshPolicy.getConfigurationJsonAsync()
+                .thenApply(config -> config == null
+                        ? defaultValue
+                        : this.deserializeJson(type, config, defaultValue));
+    }
+
     @Override
     public  <T> T getValue(Class<T> classOfT, String key, T defaultValue) {
         if(key == null || key.isEmpty())
@@ -122,6 +180,116 @@ public class BetterConfigClient implements ConfigurationProvider {
                 .thenApply(config -> this.getJsonValue(classOfT, config, key, defaultValue));
     }
 
+    @Override
+    public <T> T getValueAt(Class<T> classOfT, ConfigPath path, T defaultValue) {
+        if(classOfT == null)
+            throw new IllegalArgumentException("classOfT cannot be null");
+
+        if(path == null)
+            throw new IllegalArgumentException("path cannot be null");
+
+        try {
+            return this.maxWaitTimeForSyncCallsInSeconds > 0
+                    ? this.getValueAtAsync(classOfT, path, defaultValue).get(this.maxWaitTimeForSyncCallsInSeconds, TimeUnit.SECONDS)
+                    : this.getValueAtAsync(classOfT, path, defaultValue).get();
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during the reading of the value for path '"+path+"'.", e);
+            return this.getPathValue(classOfT, this.getSnapshot(this.refreshPolicy.getLatestCachedValue()), path, defaultValue);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getValueAtAsync(Class<T> classOfT, ConfigPath path, T defaultValue) {
+        if(classOfT == null)
+            throw new IllegalArgumentException("classOfT cannot be null");
+
+        if(path == null)
+            throw new IllegalArgumentException("path cannot be null");
+
+        return this.getSnapshotAsync()
+                .thenApply(snapshot -> this.getPathValue(classOfT, snapshot, path, defaultValue));
+    }
+
+    @Override
+    public ConfigValues getValues(ConfigKey<?>... keys) {
+        validateKeys(keys);
+        return new ConfigValues(this.getSnapshot(), keys);
+    }
+
+    @Override
+    public CompletableFuture<ConfigValues> getValuesAsync(ConfigKey<?>... keys) {
+        validateKeys(keys);
+        return this.getSnapshotAsync()
+                .thenApply(snapshot -> new ConfigValues(snapshot, keys));
+    }
+
+    @Override
+    public <T> Map<String, T> getValuesByPrefix(Class<T> classOfT, String prefix) {
+        validatePrefixQuery(classOfT, prefix);
+        return this.getSnapshot().getValuesByPrefix(classOfT, prefix);
+    }
+
+    @Override
+    public <T> CompletableFuture<Map<String, T>> getValuesByPrefixAsync(Class<T> classOfT, String prefix) {
+        validatePrefixQuery(classOfT, prefix);
+        return this.getSnapshotAsync()
+                .thenApply(snapshot -> snapshot.getValuesByPrefix(classOfT, prefix));
+    }
+
+    @Override
+    public ConfigSnapshot getSnapshot() {
+        // once a configuration is loaded, it's a volatile read unless the policy has to refresh it
+        ConfigSnapshot current = this.refreshPolicy.currentSnapshot();
+        if(current != null)
+            return current;
+
+        try {
+            return this.maxWaitTimeForSyncCallsInSeconds > 0
+                    ? this.getSnapshotAsync().get(this.maxWaitTimeForSyncCallsInSeconds, TimeUnit.SECONDS)
+                    : this.getSnapshotAsync().get();
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during reading the configuration snapshot.", e);
+            return this.getSnapshot(this.refreshPolicy.getLatestCachedValue());
+        }
+    }
+
+    @Override
+    public CompletableFuture<ConfigSnapshot> getSnapshotAsync() {
+        ConfigSnapshot current = this.refreshPolicy.currentSnapshot();
+        if(current != null)
+            return CompletableFuture.completedFuture(current);
+
+        return this.getConfigurationJsonStringAsync()
+                .thenApply(this::getSnapshot);
+    }
+
+    @Override
+    public <T> LiveValue<T> getLiveValue(Class<T> classOfT, String key, T defaultValue) {
+        if(key == null || key.isEmpty())
+            throw new IllegalArgumentException("key is null or empty");
+
+        if(classOfT != String.class && classOfT != Integer.class && classOfT != Double.class && classOfT != Boolean.class)
+            throw new IllegalArgumentException("Only String, Integer, Double or Boolean types are supported");
+
+        return this.refreshPolicy.liveValues().register(new LiveValue<>(classOfT, key, defaultValue), this::getSnapshot);
+    }
+
+    @Override
+    public LiveBoolean getLiveBoolean(String key, boolean defaultValue) {
+        if(key == null || key.isEmpty())
+            throw new IllegalArgumentException("key is null or empty");
+
+        return this.refreshPolicy.liveValues().register(new LiveBoolean(key, defaultValue), this::getSnapshot);
+    }
+
+    @Override
+    public StableBoolean getStableBoolean(String key, boolean defaultValue) {
+        if(key == null || key.isEmpty())
+            throw new IllegalArgumentException("key is null or empty");
+
+        return this.refreshPolicy.liveValues().register(new StableBoolean(key, defaultValue), this::getSnapshot);
+    }
+
     @Override
     public void forceRefresh() {
         try {
@@ -139,20 +307,104 @@ public class BetterConfigClient implements ConfigurationProvider {
         return this.refreshPolicy.refreshAsync();
     }
 
+    /**
+     * Gets the transfer statistics of the configuration fetches.
+     *
+     * @return the metrics.
+     */
+    public FetchMetrics getFetchMetrics() {
+        return this.refreshPolicy.fetcher().metrics();
+    }
+
     @Override
     public void close() throws IOException {
         this.refreshPolicy.close();
+        if(this.cache instanceof Closeable)
+            ((Closeable) this.cache).close();
+    }
+
+    private static ConfigSnapshot loadBootstrap(ConfigCache cache, Callable<String> bootstrap) {
+        if(cache.get() != null)
+            return null;
+
+        try {
+            return ConfigSnapshot.fromJson(bootstrap.call());
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during loading the bootstrap configuration.", e);
+            return null;
+        }
+    }
+
+    private static String readResource(String resourceName) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if(classLoader == null)
+            classLoader = BetterConfigClient.class.getClassLoader();
+
+        try (InputStream stream = classLoader.getResourceAsStream(resourceName)) {
+            if(stream == null)
+                throw new IOException("The resource '" + resourceName + "' was not found on the classpath");
+
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1)
+                content.write(buffer, 0, read);
+
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
     }
 
     private <T> T getJsonValue(Class<T> classOfT, String config, String key, T defaultValue) {
         try {
-            return parser.parseValue(classOfT, config, key);
+            return parser.parseSnapshotValue(classOfT, this.refreshPolicy.snapshot(config), key);
         } catch (Exception e) {
             LOGGER.error("An error occurred during the deserialization of the value for key '"+key+"'.", e);
             return defaultValue;
         }
     }
 
+    private <T> T getPathValue(Class<T> classOfT, ConfigSnapshot snapshot, ConfigPath path, T defaultValue) {
+        try {
+            T value = parser.parseSnapshotValueAt(classOfT, snapshot, path);
+            return value != null ? value : defaultValue;
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during the deserialization of the value for path '"+path+"'.", e);
+            return defaultValue;
+        }
+    }
+
+    private static void validateKeys(ConfigKey<?>[] keys) {
+        if(keys == null)
+            throw new IllegalArgumentException("keys cannot be null");
+
+        for (ConfigKey<?> key : keys) {
+            if(key == null)
+                throw new IllegalArgumentException("keys cannot contain null");
+        }
+    }
+
+    private static void validatePrefixQuery(Class<?> classOfT, String prefix) {
+        if(prefix == null)
+            throw new IllegalArgumentException("prefix cannot be null");
+
+        if(classOfT != String.class && classOfT != Integer.class && classOfT != Double.class && classOfT != Boolean.class)
+            throw new IllegalArgumentException("Only String, Integer, Double or Boolean types are supported");
+    }
+
+    private ConfigSnapshot getSnapshot(String config) {
+        try {
+            ConfigSnapshot snapshot = this.refreshPolicy.snapshot(config);
+            if(snapshot == null)
+                return ConfigSnapshot.empty();
+
+            this.refreshPolicy.loaded(snapshot);
+            return snapshot;
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during the parsing of the configuration snapshot.", e);
+            return ConfigSnapshot.empty();
+        }
+    }
+
     private <T> T getDefaultValue(Class<T> classOfT, T defaultValue) {
         String latest = this.refreshPolicy.getLatestCachedValue();
         return latest != null ? this.deserializeJson(classOfT, latest, defaultValue) : defaultValue;
@@ -165,7 +417,15 @@ public class BetterConfigClient implements ConfigurationProvider {
 
     private <T> T deserializeJson(Class<T> classOfT, String config, T defaultValue) {
         try {
-            return parser.parse(classOfT, config);
+            return parser.parseSnapshot(classOfT, this.refreshPolicy.snapshot(config));
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    private <T> T deserializeJson(ConfigType<T> type, String config, T defaultValue) {
+        try {
+            return parser.parseSnapshot(type, this.refreshPolicy.snapshot(config));
         } catch (Exception e) {
             return defaultValue;
         }
@@ -188,6 +448,12 @@ public class BetterConfigClient implements ConfigurationProvider {
         private ConfigCache cache;
         private int maxWaitTimeForSyncCallsInSeconds;
         private BiFunction<ConfigFetcher, ConfigCache, RefreshPolicy> refreshPolicy;
+        private boolean preConnect;
+        private int dnsCacheTtlInSeconds = 60;
+        // twice the default refresh interval of the auto polling and the expiring cache policies
+        private int connectionKeepAliveInSeconds = 120;
+        private Callable<String> bootstrap;
+        private Path configFile;
 
         /**
          * Sets the underlying http client which will be used to fetch the latest configuration.
@@ -201,7 +467,9 @@ public class BetterConfigClient implements ConfigurationProvider {
         }
 
         /**
-         * Sets the internal cache implementation.
+         * Sets the internal cache implementation. The given cache is wrapped into a {@link TieredConfigCache},
+         * so it's consulted only at startup, on writes, and when its stored entity tag changes.
+         * When the cache is {@link Closeable}, it's closed together with the client.
          *
          * @param cache a {@link ConfigFetcher} implementation used to cache the configuration.
          * @return the builder.
@@ -239,6 +507,106 @@ public class BetterConfigClient implements ConfigurationProvider {
             return this;
         }
 
+        /**
+         * Sets whether the client should open a connection to the configuration endpoint right at
+         * its construction, so the first configuration request doesn't have to wait for the
+         * DNS lookup and the TCP / TLS handshakes. Mostly useful with lazy refresh policies
+         * like the {@link ExpiringCachePolicy} or the {@link ManualPollingPolicy}.
+         *
+         * @param preConnect whether the client should pre-connect or not.
+         * @return the builder.
+         */
+        public Builder preConnect(boolean preConnect) {
+            this.preConnect = preConnect;
+            return this;
+        }
+
+        /**
+         * Sets how long the internal http client keeps its idle connection to the configuration endpoint alive.
+         * It should be longer than the refresh interval of the policy, so every fetch reuses the same connection.
+         * The default is 120 seconds, twice the default interval of the {@link AutoPollingPolicy} and the
+         * {@link ExpiringCachePolicy}. Has no effect when a custom http client is set.
+         *
+         * @param connectionKeepAliveInSeconds the keep-alive of the idle connection in seconds.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given value is less than 1.
+         */
+        public Builder connectionKeepAliveInSeconds(int connectionKeepAliveInSeconds) {
+            if(connectionKeepAliveInSeconds < 1)
+                throw new IllegalArgumentException("connectionKeepAliveInSeconds cannot be less than 1 second");
+
+            this.connectionKeepAliveInSeconds = connectionKeepAliveInSeconds;
+            return this;
+        }
+
+        /**
+         * Sets how long the internal http client caches the resolved addresses of the configuration endpoint.
+         * The cached addresses are refreshed in the background before they expire, and they are
+         * used further when the resolution fails. Has no effect when a custom http client is set.
+         *
+         * @param dnsCacheTtlInSeconds the cache ttl in seconds, {@code 0} turns the caching off.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given value is negative.
+         */
+        public Builder dnsCacheTtlInSeconds(int dnsCacheTtlInSeconds) {
+            if(dnsCacheTtlInSeconds < 0)
+                throw new IllegalArgumentException("dnsCacheTtlInSeconds cannot be negative");
+
+            this.dnsCacheTtlInSeconds = dnsCacheTtlInSeconds;
+            return this;
+        }
+
+        /**
+         * Sets a classpath resource which contains a configuration snapshot (e.g. one embedded at build time).
+         * The snapshot is served until the first fetch replaces it, so the first reads don't have to wait
+         * for the network. It's not used when the cache already holds a configuration.
+         *
+         * @param resourceName the name of the resource, e.g. {@code betterconfig/config.json}.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given resource name is null or empty.
+         */
+        public Builder bootstrapResource(String resourceName) {
+            if(resourceName == null || resourceName.isEmpty())
+                throw new IllegalArgumentException("resourceName is null or empty");
+
+            this.bootstrap = () -> readResource(resourceName);
+            return this;
+        }
+
+        /**
+         * Sets a file which contains a configuration snapshot. The snapshot is served until the first fetch
+         * replaces it, so the first reads don't have to wait for the network. It's not used when the cache
+         * already holds a configuration.
+         *
+         * @param file the path of the snapshot file.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given path is null.
+         */
+        public Builder bootstrapFile(Path file) {
+            if(file == null)
+                throw new IllegalArgumentException("file cannot be null");
+
+            this.bootstrap = () -> new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            return this;
+        }
+
+        /**
+         * Sets a local file (e.g. a mounted Kubernetes ConfigMap) which the client reads the configuration from
+         * instead of the network. The file is watched, and its changes are propagated without waiting
+         * for the next poll. The http client related settings have no effect when this is set.
+         *
+         * @param configFile the path of the configuration file.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given path is null.
+         */
+        public Builder configFile(Path configFile) {
+            if(configFile == null)
+                throw new IllegalArgumentException("configFile cannot be null");
+
+            this.configFile = configFile;
+            return this;
+        }
+
         /**
          * Builds the configured {@link BetterConfigClient} instance.
          *
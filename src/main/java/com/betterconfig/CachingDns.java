@@ -0,0 +1,120 @@
+package com.betterconfig;
+
+import okhttp3.Dns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link Dns} implementation which caches the resolved addresses, refreshes them
+ * in the background before they expire, and serves the stale addresses when the resolution fails.
+ * <p>Only the first lookup of a host waits for the resolver. A failed refresh keeps the stale addresses
+ * and is retried after a quarter of the ttl, so a failing resolver never delays a lookup.</p>
+ */
+public class CachingDns implements Dns, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDns.class);
+    private final Dns delegate;
+    private final long refreshAfterInNanos;
+    private final long retryAfterInNanos;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final ExecutorService refresher;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param delegate the resolver used to look up the addresses, e.g. {@link Dns#SYSTEM}.
+     * @param ttlInSeconds how long the resolved addresses are considered to be valid.
+     * @throws IllegalArgumentException when the delegate is null or the ttl is less than 1 second.
+     */
+    public CachingDns(Dns delegate, int ttlInSeconds) {
+        this(delegate, toMillis(ttlInSeconds));
+    }
+
+    CachingDns(Dns delegate, long ttlInMillis) {
+        if(delegate == null)
+            throw new IllegalArgumentException("delegate cannot be null");
+
+        this.delegate = delegate;
+        long ttlInNanos = TimeUnit.MILLISECONDS.toNanos(ttlInMillis);
+        this.refreshAfterInNanos = ttlInNanos / 4 * 3;
+        this.retryAfterInNanos = ttlInNanos - this.refreshAfterInNanos;
+        this.entries = new ConcurrentHashMap<>();
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "betterconfig-dns-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        Entry entry = this.entries.get(hostname);
+        if(entry == null)
+            return this.resolve(hostname);
+
+        // the cached addresses are served even when they are expired, only the refresh waits for the resolver
+        if(System.nanoTime() - entry.refreshAt >= 0 && entry.refreshing.compareAndSet(false, true))
+            this.refreshInBackground(hostname, entry);
+
+        return entry.addresses;
+    }
+
+    @Override
+    public void close() {
+        this.refresher.shutdownNow();
+        this.entries.clear();
+    }
+
+    private static long toMillis(int ttlInSeconds) {
+        if(ttlInSeconds < 1)
+            throw new IllegalArgumentException("ttlInSeconds cannot be less than 1 second");
+
+        return TimeUnit.SECONDS.toMillis(ttlInSeconds);
+    }
+
+    private List<InetAddress> resolve(String hostname) throws UnknownHostException {
+        List<InetAddress> addresses = this.delegate.lookup(hostname);
+        this.entries.put(hostname, new Entry(addresses, System.nanoTime() + this.refreshAfterInNanos));
+        return addresses;
+    }
+
+    private void refreshInBackground(String hostname, Entry entry) {
+        try {
+            this.refresher.execute(() -> {
+                Entry next;
+                try {
+                    next = new Entry(this.delegate.lookup(hostname), System.nanoTime() + this.refreshAfterInNanos);
+                } catch (Exception e) {
+                    LOGGER.warn("Refreshing the addresses of '" + hostname + "' failed, using the previously resolved addresses.", e);
+                    next = new Entry(entry.addresses, System.nanoTime() + this.retryAfterInNanos);
+                }
+
+                this.entries.replace(hostname, entry, next);
+            });
+        } catch (Exception e) {
+            entry.refreshing.set(false);
+            LOGGER.debug("Scheduling the address refresh of '" + hostname + "' failed.", e);
+        }
+    }
+
+    private static class Entry {
+        private final List<InetAddress> addresses;
+        private final long refreshAt;
+        private final AtomicBoolean refreshing;
+
+        private Entry(List<InetAddress> addresses, long refreshAt) {
+            this.addresses = addresses;
+            this.refreshAt = refreshAt;
+            this.refreshing = new AtomicBoolean(false);
+        }
+    }
+}
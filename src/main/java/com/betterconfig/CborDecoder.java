@@ -0,0 +1,260 @@
+package com.betterconfig;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Decodes a CBOR (RFC 7049) encoded configuration directly into a json element tree.
+ * <p>Byte strings are represented as base64 encoded strings, tags other than the
+ * bignum tags are skipped, and map keys have to be text strings or integers.</p>
+ */
+class CborDecoder {
+    private static final int MAX_DEPTH = 256;
+    private static final int INDEFINITE = 31;
+    private static final int BREAK = 0xFF;
+
+    private static final int UNSIGNED = 0;
+    private static final int NEGATIVE = 1;
+    private static final int BYTES = 2;
+    private static final int TEXT = 3;
+    private static final int ARRAY = 4;
+    private static final int MAP = 5;
+    private static final int TAG = 6;
+
+    private final ByteBuffer buffer;
+    private long hash;
+
+    private CborDecoder(byte[] data) {
+        this.buffer = ByteBuffer.wrap(data);
+    }
+
+    static JsonElement decode(byte[] data) throws IOException {
+        return new CborDecoder(data).readDocument();
+    }
+
+    /**
+     * Decodes a configuration into a snapshot, its version is computed while the tree is built.
+     */
+    static ConfigSnapshot decodeSnapshot(byte[] data) throws IOException {
+        CborDecoder decoder = new CborDecoder(data);
+        JsonElement root = decoder.readDocument();
+        return new ConfigSnapshot(null, root, decoder.hash);
+    }
+
+    private JsonElement readDocument() throws IOException {
+        try {
+            JsonElement element = this.readItem(ConfigSnapshot.rootSeed(), 0);
+            if(this.buffer.hasRemaining())
+                throw new IOException("The CBOR document has trailing data.");
+
+            return element;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("The CBOR document is truncated.", e);
+        }
+    }
+
+    private JsonElement readItem(long seed, int depth) throws IOException {
+        if(depth > MAX_DEPTH)
+            throw new IOException("The CBOR document is nested too deeply.");
+
+        int initial = this.buffer.get() & 0xFF;
+        int major = initial >>> 5;
+        int info = initial & 0x1F;
+
+        switch (major) {
+            case UNSIGNED:
+                return this.leaf(seed, this.unsigned(this.readArgument(info)));
+            case NEGATIVE:
+                long argument = this.readArgument(info);
+                return this.leaf(seed, argument >= 0
+                        ? new JsonPrimitive(-1 - argument)
+                        : new JsonPrimitive(BigInteger.ONE.negate().subtract(unsignedBig(argument))));
+            case BYTES:
+                return this.leaf(seed, new JsonPrimitive(Base64.getEncoder().encodeToString(this.readString(BYTES, info))));
+            case TEXT:
+                return this.leaf(seed, new JsonPrimitive(new String(this.readString(TEXT, info), StandardCharsets.UTF_8)));
+            case ARRAY:
+                return this.readArray(seed, info, depth);
+            case MAP:
+                return this.readMap(seed, info, depth);
+            case TAG:
+                return this.readTagged(seed, this.readArgument(info), depth);
+            default:
+                // major type 7: floats and simple values
+                return this.leaf(seed, this.readSimple(info));
+        }
+    }
+
+    private JsonArray readArray(long seed, int info, int depth) throws IOException {
+        JsonArray array = new JsonArray();
+        long items = ConfigSnapshot.arraySeed(seed);
+        long length = info == INDEFINITE ? -1 : this.readLength(info);
+        for (long i = 0; info == INDEFINITE ? !this.isBreak() : i < length; i++) {
+            array.add(this.readItem(items, depth + 1));
+            items = this.hash;
+        }
+
+        this.hash = ConfigSnapshot.arrayHash(items, array.size());
+        return array;
+    }
+
+    private JsonObject readMap(long seed, int info, int depth) throws IOException {
+        JsonObject object = new JsonObject();
+        long members = 0;
+        long size = info == INDEFINITE ? -1 : this.readLength(info);
+        for (long i = 0; info == INDEFINITE ? !this.isBreak() : i < size; i++) {
+            String key = this.readKey(depth);
+            long memberSeed = ConfigSnapshot.memberSeed(key);
+
+            // a duplicate key replaces the previous value, so its hash is taken back
+            JsonElement replaced = object.get(key);
+            if(replaced != null)
+                members -= ConfigSnapshot.memberHash(ConfigSnapshot.hash(memberSeed, replaced));
+
+            object.add(key, this.readItem(memberSeed, depth + 1));
+            members += ConfigSnapshot.memberHash(this.hash);
+        }
+
+        this.hash = ConfigSnapshot.objectHash(seed, object.size(), members);
+        return object;
+    }
+
+    private String readKey(int depth) throws IOException {
+        JsonElement key = this.readItem(ConfigSnapshot.rootSeed(), depth + 1);
+        if(!key.isJsonPrimitive() || key.getAsJsonPrimitive().isBoolean())
+            throw new IOException("The CBOR document contains an unsupported map key.");
+
+        return key.getAsString();
+    }
+
+    private JsonElement readTagged(long seed, long tag, int depth) throws IOException {
+        if(tag != 2 && tag != 3)
+            return this.readItem(seed, depth + 1);
+
+        // positive and negative bignums
+        int initial = this.buffer.get() & 0xFF;
+        if(initial >>> 5 != BYTES)
+            throw new IOException("The CBOR document contains an invalid bignum.");
+
+        BigInteger value = new BigInteger(1, this.readString(BYTES, initial & 0x1F));
+        return this.leaf(seed, new JsonPrimitive(tag == 2 ? value : BigInteger.ONE.negate().subtract(value)));
+    }
+
+    private JsonElement readSimple(int info) throws IOException {
+        switch (info) {
+            case 20:
+                return new JsonPrimitive(false);
+            case 21:
+                return new JsonPrimitive(true);
+            case 22:
+            case 23:
+                return JsonNull.INSTANCE;
+            case 25:
+                return new JsonPrimitive(halfToDouble(this.buffer.getShort() & 0xFFFF));
+            case 26:
+                return new JsonPrimitive((double) this.buffer.getFloat());
+            case 27:
+                return new JsonPrimitive(this.buffer.getDouble());
+            default:
+                throw new IOException("The CBOR document contains an unsupported simple value: " + info);
+        }
+    }
+
+    private byte[] readString(int major, int info) throws IOException {
+        if(info != INDEFINITE)
+            return this.readBytes(this.readLength(info));
+
+        // an indefinite string is a sequence of definite chunks of the same type
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        while (!this.isBreak()) {
+            int initial = this.buffer.get() & 0xFF;
+            if(initial >>> 5 != major || (initial & 0x1F) == INDEFINITE)
+                throw new IOException("The CBOR document contains an invalid string chunk.");
+
+            byte[] chunk = this.readBytes(this.readLength(initial & 0x1F));
+            chunks.write(chunk, 0, chunk.length);
+        }
+
+        return chunks.toByteArray();
+    }
+
+    private byte[] readBytes(long length) throws IOException {
+        if(length > this.buffer.remaining())
+            throw new IOException("The CBOR document is truncated.");
+
+        byte[] bytes = new byte[(int) length];
+        this.buffer.get(bytes);
+        return bytes;
+    }
+
+    private long readLength(int info) throws IOException {
+        long length = this.readArgument(info);
+        // every item takes at least one byte, so a longer length can't be valid
+        if(length < 0 || length > this.buffer.remaining())
+            throw new IOException("The CBOR document contains an invalid length.");
+
+        return length;
+    }
+
+    private long readArgument(int info) throws IOException {
+        if(info < 24)
+            return info;
+
+        switch (info) {
+            case 24:
+                return this.buffer.get() & 0xFFL;
+            case 25:
+                return this.buffer.getShort() & 0xFFFFL;
+            case 26:
+                return this.buffer.getInt() & 0xFFFFFFFFL;
+            case 27:
+                return this.buffer.getLong();
+            default:
+                throw new IOException("The CBOR document contains an invalid argument: " + info);
+        }
+    }
+
+    private boolean isBreak() {
+        if((this.buffer.get(this.buffer.position()) & 0xFF) != BREAK)
+            return false;
+
+        this.buffer.get();
+        return true;
+    }
+
+    private JsonElement leaf(long seed, JsonElement leaf) {
+        this.hash = ConfigSnapshot.hash(seed, leaf);
+        return leaf;
+    }
+
+    private JsonPrimitive unsigned(long value) {
+        return value >= 0 ? new JsonPrimitive(value) : new JsonPrimitive(unsignedBig(value));
+    }
+
+    private static BigInteger unsignedBig(long value) {
+        return BigInteger.valueOf(value & Long.MAX_VALUE).setBit(63);
+    }
+
+    private static double halfToDouble(int half) {
+        int exponent = (half >>> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        double value = exponent == 0
+                ? mantissa * Math.pow(2, -24)
+                : exponent != 31
+                    ? (mantissa + 1024) * Math.pow(2, exponent - 25)
+                    : mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+}
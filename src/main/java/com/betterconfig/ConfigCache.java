@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A cache API used to make custom cache implementations for {@link BetterConfigClient}.
@@ -12,6 +13,8 @@ import java.io.IOException;
 public abstract class ConfigCache {
     protected static final Logger LOGGER = LoggerFactory.getLogger(ConfigCache.class);
     private String inMemoryValue;
+    private String inMemoryETag;
+    private volatile Memo memo;
 
     public String get() {
         try {
@@ -23,14 +26,62 @@ public abstract class ConfigCache {
     }
 
     public void set(String value) {
+        this.set(value, null);
+    }
+
+    public String getETag() {
+        try {
+            return this.readETag();
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during the cache read", e);
+            return this.inMemoryETag;
+        }
+    }
+
+    public void set(String value, String eTag) {
         try {
             this.inMemoryValue = value;
-            this.write(value);
+            this.inMemoryETag = eTag;
+            this.write(value, eTag);
         } catch (Exception e) {
             LOGGER.error("An error occurred during the cache write", e);
         }
     }
 
+    public CompletableFuture<String> getAsync() {
+        return invokeAsync(this::readAsync)
+                .handle((value, error) -> {
+                    if(error == null)
+                        return value;
+
+                    LOGGER.error("An error occurred during the cache read", error);
+                    return this.inMemoryValue;
+                });
+    }
+
+    public CompletableFuture<String> getETagAsync() {
+        return invokeAsync(this::readETagAsync)
+                .handle((eTag, error) -> {
+                    if(error == null)
+                        return eTag;
+
+                    LOGGER.error("An error occurred during the cache read", error);
+                    return this.inMemoryETag;
+                });
+    }
+
+    public CompletableFuture<Void> setAsync(String value, String eTag) {
+        this.inMemoryValue = value;
+        this.inMemoryETag = eTag;
+        return invokeAsync(() -> this.writeAsync(value, eTag))
+                .handle((result, error) -> {
+                    if(error != null)
+                        LOGGER.error("An error occurred during the cache write", error);
+
+                    return null;
+                });
+    }
+
     /**
      * Through this getter, the in-memory representation of the cached value can be accessed.
      * When the underlying cache implementations is not able to load or store its value,
@@ -40,6 +91,72 @@ public abstract class ConfigCache {
      */
     public String inMemoryValue() { return this.inMemoryValue; }
 
+    /**
+     * Through this getter, the in-memory representation of the cached entity tag can be accessed.
+     *
+     * @return the cached entity tag in memory.
+     */
+    public String inMemoryETag() { return this.inMemoryETag; }
+
+    /**
+     * Gets the read index of the given cached value. The index is built only once per value,
+     * either by {@link #readSnapshot(String)} or by parsing the value.
+     *
+     * @param value the cached value.
+     * @return the read index, or {@code null} when the value is null.
+     * @throws ParsingFailedException when the value is not a valid json.
+     */
+    ConfigSnapshot snapshot(String value) throws ParsingFailedException {
+        if(value == null || value.isEmpty())
+            return null;
+
+        // a cache returns the same value instance until it's replaced, so a read is only an identity check
+        Memo memo = this.memo;
+        if(memo != null && memo.value == value)
+            return memo.snapshot;
+
+        ConfigSnapshot current = memo != null ? memo.snapshot : null;
+        if(current != null && current.isSnapshotOf(value)) {
+            this.memo = new Memo(value, current);
+            return current;
+        }
+
+        ConfigSnapshot loaded = null;
+        try {
+            loaded = this.readSnapshot(value);
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during the cache snapshot read", e);
+        }
+
+        if(loaded == null || !loaded.isSnapshotOf(value))
+            loaded = ConfigSnapshot.fromJson(value);
+
+        // the values which didn't change since the previous snapshot are reused
+        loaded = loaded.sharingWith(current);
+        this.memo = new Memo(value, loaded);
+        return loaded;
+    }
+
+    void cacheSnapshot(ConfigSnapshot snapshot) {
+        this.memo = new Memo(snapshot.json(), snapshot);
+    }
+
+    /**
+     * Gets the snapshot of a value which is being written, so a cache which stores snapshots
+     * doesn't have to parse the value again. The snapshot of a fetched configuration is handed
+     * over to the cache before the configuration is written.
+     *
+     * @param value the value being written.
+     * @return the snapshot of the value, or {@code null} when it's not known.
+     */
+    protected ConfigSnapshot writtenSnapshot(String value) {
+        Memo memo = this.memo;
+        if(memo == null || value == null)
+            return null;
+
+        return memo.value == value || memo.snapshot.isSnapshotOf(value) ? memo.snapshot : null;
+    }
+
     /**
      * Child classes has to implement this method, the {@link BetterConfigClient}
      * uses it to get the actual value from the cache.
@@ -57,5 +174,106 @@ public abstract class ConfigCache {
      * @throws Exception if unable to save the value.
      */
     protected abstract void write(String value) throws Exception;
-}
 
+    /**
+     * Persistent cache implementations can override this method to return the stored entity tag
+     * of the cached configuration, which lets the {@link BetterConfigClient} skip downloading an
+     * unchanged configuration after a restart. By default it returns the in-memory entity tag.
+     *
+     * @return the entity tag of the cached configuration.
+     * @throws Exception if unable to read the cache.
+     */
+    protected String readETag() throws Exception {
+        return this.inMemoryETag;
+    }
+
+    /**
+     * Persistent cache implementations can override this method to store the entity tag
+     * alongside the configuration. By default it calls {@link #write(String)}.
+     *
+     * @param value the new value to cache.
+     * @param eTag the entity tag of the new value, can be {@code null}.
+     * @throws Exception if unable to save the value.
+     */
+    protected void write(String value, String eTag) throws Exception {
+        this.write(value);
+    }
+
+    /**
+     * Persistent cache implementations which store the binary form of the {@link ConfigSnapshot}
+     * can override this method to return the stored snapshot when it belongs to the given value,
+     * so the value doesn't have to be parsed again. By default it returns {@code null}, which means
+     * the value gets parsed.
+     *
+     * @param value the cached value whose snapshot is requested.
+     * @return the snapshot of the value, or {@code null} when it's not available.
+     * @throws Exception if unable to read the cache.
+     */
+    protected ConfigSnapshot readSnapshot(String value) throws Exception {
+        return null;
+    }
+
+    /**
+     * Cache implementations backed by a remote store can override this method to read the cached value
+     * without blocking the caller, the refresh policies compose the returned future. By default it
+     * completes immediately with the result of {@link #read()}.
+     *
+     * @return the future which computes the cached configuration.
+     */
+    protected CompletableFuture<String> readAsync() {
+        return invokeAsync(() -> CompletableFuture.completedFuture(this.read()));
+    }
+
+    /**
+     * Cache implementations backed by a remote store can override this method to read the stored entity tag
+     * without blocking the caller. By default it completes immediately with the result of {@link #readETag()}.
+     *
+     * @return the future which computes the entity tag of the cached configuration.
+     */
+    protected CompletableFuture<String> readETagAsync() {
+        return invokeAsync(() -> CompletableFuture.completedFuture(this.readETag()));
+    }
+
+    /**
+     * Cache implementations backed by a remote store can override this method to store the new value
+     * without blocking the caller. By default it completes immediately after calling {@link #write(String, String)}.
+     *
+     * @param value the new value to cache.
+     * @param eTag the entity tag of the new value, can be {@code null}.
+     * @return the future which completes when the value is stored.
+     */
+    protected CompletableFuture<Void> writeAsync(String value, String eTag) {
+        return invokeAsync(() -> {
+            this.write(value, eTag);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private static <T> CompletableFuture<T> invokeAsync(AsyncOperation<T> operation) {
+        try {
+            CompletableFuture<T> future = operation.invoke();
+            if(future != null)
+                return future;
+
+            throw new IllegalStateException("The cache returned a null future");
+        } catch (Exception e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private interface AsyncOperation<T> {
+        CompletableFuture<T> invoke() throws Exception;
+    }
+
+    private static class Memo {
+        private final String value;
+        private final ConfigSnapshot snapshot;
+
+        private Memo(String value, ConfigSnapshot snapshot) {
+            this.value = value;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.betterconfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the write statistics of a {@link WriteBehindConfigCache}.
+ */
+public class ConfigCacheMetrics {
+    private final AtomicLong requestedWrites = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong persistedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+
+    /**
+     * Gets how many values were given to the cache to store.
+     *
+     * @return the number of the requested writes.
+     */
+    public long requestedWrites() {
+        return this.requestedWrites.get();
+    }
+
+    /**
+     * Gets how many values were skipped because a newer value replaced them before they could be stored.
+     *
+     * @return the number of the coalesced writes.
+     */
+    public long coalescedWrites() {
+        return this.coalescedWrites.get();
+    }
+
+    /**
+     * Gets how many values were stored successfully by the underlying cache.
+     *
+     * @return the number of the persisted writes.
+     */
+    public long persistedWrites() {
+        return this.persistedWrites.get();
+    }
+
+    /**
+     * Gets how many values the underlying cache failed to store.
+     *
+     * @return the number of the failed writes.
+     */
+    public long failedWrites() {
+        return this.failedWrites.get();
+    }
+
+    /**
+     * Gets the error of the latest failed write.
+     *
+     * @return the latest error, or {@code null} when no write failed yet.
+     */
+    public Throwable lastFailure() {
+        return this.lastFailure.get();
+    }
+
+    void writeRequested() {
+        this.requestedWrites.incrementAndGet();
+    }
+
+    void writeCoalesced() {
+        this.coalescedWrites.incrementAndGet();
+    }
+
+    void writePersisted() {
+        this.persistedWrites.incrementAndGet();
+    }
+
+    void writeFailed(Throwable error) {
+        this.failedWrites.incrementAndGet();
+        this.lastFailure.set(error);
+    }
+}
@@ -1,5 +1,7 @@
 package com.betterconfig;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,21 +9,34 @@ import org.slf4j.LoggerFactory;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is used by the internal {@link ConfigCache} implementation to fetch the latest configuration.
  */
 public class ConfigFetcher implements Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigFetcher.class);
+    // the binary encoding is preferred, servers without support respond with json
+    private static final String ACCEPT = "application/cbor, application/json;q=0.9";
+    private static final String MERGE_PATCH = "merge-patch";
+    // set explicitly, so the http client doesn't decompress transparently and the transferred bytes can be counted
+    private static final String ACCEPT_ENCODING = "gzip, br";
     private final OkHttpClient httpClient;
+    private final boolean ownsHttpClient;
     private String url;
-    private String eTag;
+    private volatile String eTag;
+    private volatile DeltaBase deltaBase;
+    private final FetchMetrics metrics = new FetchMetrics();
     private final String version;
 
     void setUrl(String url) {
         this.url = url;
     }
 
+    void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+
     /**
      * Constructs a new instance.
      *
@@ -29,7 +44,12 @@ public class ConfigFetcher implements Closeable {
      * @param projectSecret the project secret.
      */
     public ConfigFetcher(OkHttpClient httpClient, String projectSecret) {
+        this(httpClient, projectSecret, false);
+    }
+
+    ConfigFetcher(OkHttpClient httpClient, String projectSecret, boolean ownsHttpClient) {
         this.httpClient = httpClient;
+        this.ownsHttpClient = ownsHttpClient;
         this.url = "https://cdn.betterconfig.com/configuration-files/" + projectSecret + "/config.json";
         this.version = this.getClass().getPackage().getImplementationVersion();
     }
@@ -40,8 +60,18 @@ public class ConfigFetcher implements Closeable {
      * @return a {@link FetchResponse} instance which holds the result of the fetch.
      */
     public CompletableFuture<FetchResponse> getConfigurationJsonStringAsync() {
+        return this.fetch(true);
+    }
+
+    private CompletableFuture<FetchResponse> fetch(boolean allowDelta) {
+        DeltaBase base = allowDelta ? this.deltaBase : null;
         Request request = this.getRequest();
+        if(base != null && base.eTag != null && base.eTag.equals(this.eTag))
+            request = request.newBuilder().addHeader("A-IM", MERGE_PATCH).build();
+        else
+            base = null;
 
+        DeltaBase requestBase = base;
         CompletableFuture<FetchResponse> future = new CompletableFuture<>();
         this.httpClient.newCall(request).enqueue(new Callback() {
             @Override
@@ -53,10 +83,18 @@ public class ConfigFetcher implements Closeable {
             @Override
             public void onResponse(Call call, Response response) {
                 try {
-                    if (response.isSuccessful()) {
+                    if (response.code() == 226) {
+                        FetchResponse patched = applyDelta(requestBase, response);
+                        if(patched != null) {
+                            LOGGER.debug("Fetch was successful: config patched");
+                            future.complete(patched);
+                        } else {
+                            LOGGER.debug("The delta can't be applied, fetching the whole config");
+                            fetch(false).whenComplete((result, error) -> future.complete(result));
+                        }
+                    } else if (response.isSuccessful()) {
                         LOGGER.debug("Fetch was successful: new config fetched");
-                        eTag = response.header("ETag");
-                        future.complete(new FetchResponse(FetchResponse.Status.FETCHED, response.body().string()));
+                        future.complete(fetched(response));
                     } else if (response.code() == 304) {
                         LOGGER.debug("Fetch was successful: config not modified");
                         future.complete(new FetchResponse(FetchResponse.Status.NOTMODIFIED, null));
@@ -67,6 +105,8 @@ public class ConfigFetcher implements Closeable {
                 } catch (Exception e) {
                     LOGGER.error("An error occurred during fetching the latest configuration.", e);
                     future.complete(new FetchResponse(FetchResponse.Status.FAILED, null));
+                } finally {
+                    response.close();
                 }
             }
         });
@@ -74,6 +114,86 @@ public class ConfigFetcher implements Closeable {
         return future;
     }
 
+    private FetchResponse applyDelta(DeltaBase base, Response response) throws IOException {
+        // RFC 3229 delta encoding, the body is a json merge patch (RFC 7396) relative to the sent entity tag
+        if(base == null || !MERGE_PATCH.equalsIgnoreCase(response.header("IM")))
+            return null;
+
+        try (DecodedBody body = DecodedBody.open(response)) {
+            JsonElement patch = body.readTree();
+            this.metrics.bodyRead(body.compressedBytes(), body.uncompressedBytes());
+            return this.fetched(ConfigSnapshot.fromTree(JsonMergePatch.apply(base.snapshot.root(), patch)), response.header("ETag"));
+        } catch (JsonParseException e) {
+            LOGGER.error("An error occurred during applying the delta of the latest configuration.", e);
+            return null;
+        }
+    }
+
+    private FetchResponse fetched(Response response) throws IOException {
+        String eTag = response.header("ETag");
+        try (DecodedBody body = DecodedBody.open(response)) {
+            try {
+                DeltaBase previous = this.deltaBase;
+                ConfigSnapshot snapshot = body.readSnapshot().sharingWith(previous != null ? previous.snapshot : null);
+                this.metrics.bodyRead(body.compressedBytes(), body.uncompressedBytes());
+                return this.fetched(snapshot, eTag);
+            } catch (ParsingFailedException e) {
+                // not a valid json, it's passed on as it is
+                this.metrics.bodyRead(body.compressedBytes(), body.uncompressedBytes());
+                this.eTag = eTag;
+                this.deltaBase = null;
+                return new FetchResponse(FetchResponse.Status.FETCHED, e.getJson(), eTag);
+            }
+        }
+    }
+
+    private FetchResponse fetched(ConfigSnapshot snapshot, String eTag) {
+        this.eTag = eTag;
+        this.deltaBase = new DeltaBase(eTag, snapshot);
+        return new FetchResponse(FetchResponse.Status.FETCHED, snapshot, eTag);
+    }
+
+    /**
+     * Gets the transfer statistics of the fetches, e.g. how many bytes were transferred compressed and
+     * how many they were after decompression.
+     *
+     * @return the metrics.
+     */
+    public FetchMetrics metrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Opens a connection to the configuration endpoint asynchronously without downloading
+     * the configuration, so the DNS lookup and the TCP / TLS handshakes are not paid by the first fetch.
+     *
+     * @return the future which completes when the connection is established or the attempt failed.
+     */
+    public CompletableFuture<Void> preConnectAsync() {
+        Request request = this.getRequest()
+                .newBuilder()
+                .head()
+                .build();
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        this.httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                LOGGER.debug("Pre-connecting to the configuration endpoint failed.", e);
+                future.complete(null);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                LOGGER.debug("Pre-connected to the configuration endpoint.");
+                future.complete(null);
+            }
+        });
+
+        return future;
+    }
+
     @Override
     public void close() throws IOException {
         if (this.httpClient != null) {
@@ -86,17 +206,39 @@ public class ConfigFetcher implements Closeable {
             if (this.httpClient.cache() != null)
                 this.httpClient.cache().close();
 
+            if (this.ownsHttpClient && this.httpClient.dns() instanceof Closeable)
+                ((Closeable) this.httpClient.dns()).close();
+
         }
     }
 
+    /**
+     * Fetchers which are able to observe the changes of their source can call the given
+     * callback when the configuration changes. The http fetcher has nothing to watch.
+     *
+     * @param onChange the callback which refreshes the configuration.
+     */
+    void watch(Runnable onChange) { }
+
     Request getRequest() {
         Request.Builder builder =  new Request.Builder()
-                .addHeader("User-Agent", "BetterConfigClient-Java/" + this.version);
+                .addHeader("User-Agent", "BetterConfigClient-Java/" + this.version)
+                .addHeader("Accept", ACCEPT)
+                .addHeader("Accept-Encoding", ACCEPT_ENCODING);
 
         if(this.eTag != null)
             builder.addHeader("If-None-Match", this.eTag);
 
         return builder.url(this.url).build();
     }
-}
 
+    private static class DeltaBase {
+        private final String eTag;
+        private final ConfigSnapshot snapshot;
+
+        private DeltaBase(String eTag, ConfigSnapshot snapshot) {
+            this.eTag = eTag;
+            this.snapshot = snapshot;
+        }
+    }
+}
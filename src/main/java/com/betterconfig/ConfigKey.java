@@ -0,0 +1,79 @@
+package com.betterconfig;
+
+/**
+ * A typed identifier of a configuration value with its default value, used to read
+ * many values at once with {@link ConfigurationProvider#getValues(ConfigKey[])}.
+ * <p>Keys are immutable, so they can be declared as constants:</p>
+ * <pre>{@code
+ * static final ConfigKey<Boolean> FEATURE = ConfigKey.of(Boolean.class, "isFeatureEnabled", false);
+ * }</pre>
+ *
+ * @param <T> the type of the value.
+ */
+public final class ConfigKey<T> {
+    private final Class<T> type;
+    private final String key;
+    private final T defaultValue;
+
+    private ConfigKey(Class<T> type, String key, T defaultValue) {
+        this.type = type;
+        this.key = key;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Creates a new key.
+     *
+     * @param classOfT the class of T. Only {@link String}, {@link Integer}, {@link Double} or {@link Boolean} types are supported.
+     * @param key the identifier of the configuration value.
+     * @param defaultValue the value which is read when the key is missing or its value has a different type.
+     * @param <T> the type of the value.
+     * @return the key.
+     * @throws IllegalArgumentException when the key is empty or null, or when the {@code <T>} type is not supported.
+     */
+    public static <T> ConfigKey<T> of(Class<T> classOfT, String key, T defaultValue) {
+        if(key == null || key.isEmpty())
+            throw new IllegalArgumentException("key is null or empty");
+
+        if(classOfT != String.class && classOfT != Integer.class && classOfT != Double.class && classOfT != Boolean.class)
+            throw new IllegalArgumentException("Only String, Integer, Double or Boolean types are supported");
+
+        return new ConfigKey<>(classOfT, key, defaultValue);
+    }
+
+    /**
+     * Gets the identifier of the configuration value.
+     *
+     * @return the key.
+     */
+    public String key() {
+        return this.key;
+    }
+
+    /**
+     * Gets the type of the value.
+     *
+     * @return the class of T.
+     */
+    public Class<T> type() {
+        return this.type;
+    }
+
+    /**
+     * Gets the default value.
+     *
+     * @return the default value.
+     */
+    public T defaultValue() {
+        return this.defaultValue;
+    }
+
+    T read(ConfigSnapshot snapshot) {
+        return ConfigSnapshot.valueOf(this.type, snapshot.get(this.key), this.defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return this.key + " (" + this.type.getSimpleName() + ")";
+    }
+}
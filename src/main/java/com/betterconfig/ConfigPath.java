@@ -0,0 +1,137 @@
+package com.betterconfig;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled path of a nested configuration value, e.g. {@code checkout.providers[2].url}.
+ * The path is parsed once and can be reused for any number of reads:
+ * <pre>{@code
+ * static final ConfigPath PROVIDER_URL = ConfigPath.compile("checkout.providers[2].url");
+ * }</pre>
+ * <p>A segment is either a member name following a {@code .}, an array index like {@code [2]},
+ * or a quoted member name like {@code ["name.with.dots"]} for names containing {@code .} or {@code [}.</p>
+ */
+public final class ConfigPath {
+    private final String path;
+    private final String[] names;
+    private final int[] indices;
+
+    private ConfigPath(String path, String[] names, int[] indices) {
+        this.path = path;
+        this.names = names;
+        this.indices = indices;
+    }
+
+    /**
+     * Compiles the given path.
+     *
+     * @param path the path of the value.
+     * @return the compiled path.
+     * @throws IllegalArgumentException when the path is empty, null or malformed.
+     */
+    public static ConfigPath compile(String path) {
+        if(path == null || path.isEmpty())
+            throw new IllegalArgumentException("path is null or empty");
+
+        List<String> names = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        int i = 0;
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if(c == '[') {
+                int end = path.indexOf(']', i);
+                if(end < 0)
+                    throw invalid(path);
+
+                if(path.charAt(i + 1) == '"') {
+                    end = path.indexOf("\"]", i + 2);
+                    if(end < 0)
+                        throw invalid(path);
+
+                    names.add(path.substring(i + 2, end));
+                    indices.add(-1);
+                    end++;
+                } else {
+                    names.add(null);
+                    indices.add(parseIndex(path, path.substring(i + 1, end)));
+                }
+
+                i = end + 1;
+            } else {
+                if(i > 0) {
+                    if(c != '.')
+                        throw invalid(path);
+
+                    i++;
+                }
+
+                int end = i;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[')
+                    end++;
+
+                if(end == i)
+                    throw invalid(path);
+
+                names.add(path.substring(i, end));
+                indices.add(-1);
+                i = end;
+            }
+        }
+
+        int[] indexArray = new int[indices.size()];
+        for (int j = 0; j < indexArray.length; j++)
+            indexArray[j] = indices.get(j);
+
+        return new ConfigPath(path, names.toArray(new String[0]), indexArray);
+    }
+
+    /**
+     * Gets the number of segments of the path.
+     *
+     * @return the number of segments.
+     */
+    public int depth() {
+        return this.names.length;
+    }
+
+    JsonElement resolve(JsonElement root) {
+        JsonElement current = root;
+        for (int i = 0; i < this.names.length && current != null; i++) {
+            if(this.names[i] != null) {
+                current = current.isJsonObject() ? current.getAsJsonObject().get(this.names[i]) : null;
+            } else if(current.isJsonArray()) {
+                JsonArray array = current.getAsJsonArray();
+                current = this.indices[i] < array.size() ? array.get(this.indices[i]) : null;
+            } else {
+                current = null;
+            }
+        }
+
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return this.path;
+    }
+
+    private static int parseIndex(String path, String index) {
+        try {
+            int value = Integer.parseInt(index);
+            if(value >= 0 && index.charAt(0) != '+')
+                return value;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+
+        throw invalid(path);
+    }
+
+    private static IllegalArgumentException invalid(String path) {
+        return new IllegalArgumentException("path '" + path + "' is invalid");
+    }
+}
@@ -0,0 +1,71 @@
+package com.betterconfig;
+
+import java.util.function.Function;
+
+/**
+ * Describes the keys of a typed configuration accessor, e.g. the ones generated by the
+ * {@code codegen} module. The keys are resolved into slots once per snapshot, and the accessor
+ * reads its values from the slots by their fixed index, so reading a value needs no key lookup,
+ * type dispatch or reflection.
+ * <p>The accessor of the latest snapshot is kept, so it's created only once per configuration version.</p>
+ *
+ * @param <T> the type of the accessor.
+ */
+public final class ConfigSchema<T> {
+    private final Function<ConfigSlots, T> factory;
+    private final String[] keys;
+    private volatile Accessor<T> latest;
+
+    /**
+     * Constructs a new schema.
+     *
+     * @param factory creates the accessor from the resolved slots.
+     * @param keys the keys of the accessor, their position is the index of their slot.
+     * @throws IllegalArgumentException when the factory or any of the keys is null.
+     */
+    public ConfigSchema(Function<ConfigSlots, T> factory, String... keys) {
+        if(factory == null)
+            throw new IllegalArgumentException("factory cannot be null");
+
+        if(keys == null)
+            throw new IllegalArgumentException("keys cannot be null");
+
+        for (String key : keys) {
+            if(key == null || key.isEmpty())
+                throw new IllegalArgumentException("key is null or empty");
+        }
+
+        this.factory = factory;
+        this.keys = keys.clone();
+    }
+
+    /**
+     * Gets the accessor of the given snapshot.
+     *
+     * @param snapshot the configuration snapshot.
+     * @return the accessor.
+     * @throws IllegalArgumentException when the snapshot is null.
+     */
+    public T get(ConfigSnapshot snapshot) {
+        if(snapshot == null)
+            throw new IllegalArgumentException("snapshot cannot be null");
+
+        Accessor<T> latest = this.latest;
+        if(latest != null && latest.snapshot == snapshot)
+            return latest.value;
+
+        T value = this.factory.apply(new ConfigSlots(snapshot, this.keys));
+        this.latest = new Accessor<>(snapshot, value);
+        return value;
+    }
+
+    private static class Accessor<T> {
+        private final ConfigSnapshot snapshot;
+        private final T value;
+
+        private Accessor(ConfigSnapshot snapshot, T value) {
+            this.snapshot = snapshot;
+            this.value = value;
+        }
+    }
+}
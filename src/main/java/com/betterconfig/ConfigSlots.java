@@ -0,0 +1,70 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+
+/**
+ * The values of a {@link ConfigSchema} resolved from a snapshot, addressed by the index of their key.
+ * The typed getters return the default value when the key is missing or its value has a different type.
+ */
+public final class ConfigSlots {
+    private final JsonElement[] values;
+
+    ConfigSlots(ConfigSnapshot snapshot, String[] keys) {
+        this.values = new JsonElement[keys.length];
+        for (int i = 0; i < keys.length; i++)
+            this.values[i] = snapshot.get(keys[i]);
+    }
+
+    /**
+     * Gets the number of the slots.
+     *
+     * @return the number of the slots.
+     */
+    public int size() {
+        return this.values.length;
+    }
+
+    /**
+     * Gets a boolean value.
+     *
+     * @param slot the index of the key.
+     * @param defaultValue the default value.
+     * @return the value of the slot.
+     */
+    public boolean getBoolean(int slot, boolean defaultValue) {
+        return ConfigSnapshot.valueOf(Boolean.class, this.values[slot], defaultValue);
+    }
+
+    /**
+     * Gets an integer value.
+     *
+     * @param slot the index of the key.
+     * @param defaultValue the default value.
+     * @return the value of the slot.
+     */
+    public int getInt(int slot, int defaultValue) {
+        return ConfigSnapshot.valueOf(Integer.class, this.values[slot], defaultValue);
+    }
+
+    /**
+     * Gets a double value.
+     *
+     * @param slot the index of the key.
+     * @param defaultValue the default value.
+     * @return the value of the slot.
+     */
+    public double getDouble(int slot, double defaultValue) {
+        return ConfigSnapshot.valueOf(Double.class, this.values[slot], defaultValue);
+    }
+
+    /**
+     * Gets a string value.
+     *
+     * @param slot the index of the key.
+     * @param defaultValue the default value.
+     * @return the value of the slot.
+     */
+    public String getString(int slot, String defaultValue) {
+        return ConfigSnapshot.valueOf(String.class, this.values[slot], defaultValue);
+    }
+}
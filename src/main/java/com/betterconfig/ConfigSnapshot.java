@@ -0,0 +1,380 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable read index of a configuration. The json is parsed only once per configuration
+ * version, and the values are looked up from the index afterwards.
+ * <p>A snapshot can be turned into a compact binary form with {@link #toBinary(boolean)}, which
+ * persistent cache implementations can store and load back with {@link #fromBinary(byte[])}
+ * without parsing the json again. The binary form holds only the values, the json text of a
+ * loaded snapshot is rebuilt from them when it's first read.</p>
+ */
+public final class ConfigSnapshot {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final ConfigSnapshot EMPTY = new ConfigSnapshot("{}", new JsonObject());
+    private volatile String json;
+    private final long version;
+    private final JsonElement root;
+    private final JsonObject values;
+    private volatile String[] sortedKeys;
+
+    ConfigSnapshot(String json, JsonElement root) {
+        this(json, root, root != null ? hash(root) : hash(json));
+    }
+
+    ConfigSnapshot(String json, JsonElement root, long version) {
+        this.json = json;
+        this.version = version;
+        this.root = root;
+        this.values = root != null && root.isJsonObject() ? root.getAsJsonObject() : new JsonObject();
+    }
+
+    /**
+     * Parses the given json into a snapshot.
+     *
+     * @param json the json configuration.
+     * @return the snapshot.
+     * @throws ParsingFailedException when the parsing failed.
+     * @throws IllegalArgumentException when the json is empty or null.
+     */
+    public static ConfigSnapshot fromJson(String json) throws ParsingFailedException {
+        if(json == null || json.isEmpty())
+            throw new IllegalArgumentException("json is null or empty");
+
+        try {
+            ConfigTreeReader reader = new ConfigTreeReader(new StringReader(json));
+            JsonElement root = reader.read();
+            return new ConfigSnapshot(json, root, reader.version());
+        } catch (Exception e) {
+            throw new ParsingFailedException("Parsing failed.", json);
+        }
+    }
+
+    static ConfigSnapshot empty() {
+        return EMPTY;
+    }
+
+    static ConfigSnapshot fromTree(JsonElement root) {
+        return new ConfigSnapshot(null, root);
+    }
+
+    /**
+     * Loads a snapshot from its binary form.
+     *
+     * @param snapshot the binary form created by {@link #toBinary(boolean)}.
+     * @return the snapshot.
+     * @throws IOException when the binary form is corrupted or has an unknown format.
+     * @throws IllegalArgumentException when the given array is null.
+     */
+    public static ConfigSnapshot fromBinary(byte[] snapshot) throws IOException {
+        if(snapshot == null)
+            throw new IllegalArgumentException("snapshot cannot be null");
+
+        return ConfigSnapshotCodec.decode(snapshot);
+    }
+
+    /**
+     * Creates the compact binary form of the snapshot.
+     *
+     * @param compress whether the binary form should be compressed with deflate.
+     * @return the binary form.
+     */
+    public byte[] toBinary(boolean compress) {
+        return ConfigSnapshotCodec.encode(this, compress);
+    }
+
+    /**
+     * Gets the json configuration of the snapshot. For a snapshot which wasn't parsed from a json
+     * text, e.g. one loaded from its binary form, it's the compact json of the values.
+     *
+     * @return the json configuration.
+     */
+    public String json() {
+        String json = this.json;
+        if(json == null) {
+            json = this.root.toString();
+            this.json = json;
+        }
+
+        return json;
+    }
+
+    /**
+     * Gets the version of the snapshot, which is a 64-bit hash of its configuration values.
+     * The hash doesn't depend on the formatting of the json, the order of the object members,
+     * or how a number is written, so two snapshots of the same configuration have the same
+     * version whether it was fetched as json, CBOR or a merge patch.
+     *
+     * @return the version.
+     */
+    public long version() {
+        return this.version;
+    }
+
+    /**
+     * Gets the top level keys of the configuration.
+     *
+     * @return the keys.
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(this.values.keySet());
+    }
+
+    /**
+     * Gets a value as T identified by the given {@code key}. Every value read from the same
+     * snapshot belongs to the same configuration version, even when the client refreshes meanwhile.
+     *
+     * @param classOfT the class of T. Only {@link String}, {@link Integer}, {@link Double} or {@link Boolean} types are supported.
+     * @param key the identifier of the configuration value.
+     * @param defaultValue this value is returned when the key is missing or its value has a different type.
+     * @param <T> the type of the desired config value.
+     * @return the configuration value identified by the given key.
+     * @throws IllegalArgumentException when the key is empty or null, or when the {@code <T>} type is not supported.
+     */
+    public <T> T getValue(Class<T> classOfT, String key, T defaultValue) {
+        if(key == null || key.isEmpty())
+            throw new IllegalArgumentException("key is null or empty");
+
+        if(classOfT != String.class && classOfT != Integer.class && classOfT != Double.class && classOfT != Boolean.class)
+            throw new IllegalArgumentException("Only String, Integer, Double or Boolean types are supported");
+
+        return valueOf(classOfT, this.values.get(key), defaultValue);
+    }
+
+    /**
+     * Gets a value as T identified by the given nested {@code path}. The compiled path is resolved
+     * against the parsed tree of the snapshot, without parsing or tokenizing anything again.
+     *
+     * @param classOfT the class of T. Only {@link String}, {@link Integer}, {@link Double} or {@link Boolean} types are supported.
+     * @param path the compiled path of the value.
+     * @param defaultValue this value is returned when the value is missing or has a different type.
+     * @param <T> the type of the desired config value.
+     * @return the configuration value identified by the given path.
+     * @throws IllegalArgumentException when the path is null, or when the {@code <T>} type is not supported.
+     */
+    public <T> T getValueAt(Class<T> classOfT, ConfigPath path, T defaultValue) {
+        if(path == null)
+            throw new IllegalArgumentException("path cannot be null");
+
+        if(classOfT != String.class && classOfT != Integer.class && classOfT != Double.class && classOfT != Boolean.class)
+            throw new IllegalArgumentException("Only String, Integer, Double or Boolean types are supported");
+
+        return valueOf(classOfT, path.resolve(this.root), defaultValue);
+    }
+
+    /**
+     * Gets the values as T of every key starting with the given {@code prefix}, e.g. {@code "checkout."}.
+     * The keys are looked up from a sorted index of the snapshot, which is built once on the first prefix query.
+     *
+     * @param classOfT the class of T. Only {@link String}, {@link Integer}, {@link Double} or {@link Boolean} types are supported.
+     * @param prefix the common prefix of the keys, an empty prefix matches every key.
+     * @param <T> the type of the desired config values.
+     * @return an unmodifiable map of the matching keys and their values in the order of the keys.
+     * The keys which are null or have a different type are left out.
+     * @throws IllegalArgumentException when the prefix is null, or when the {@code <T>} type is not supported.
+     */
+    public <T> Map<String, T> getValuesByPrefix(Class<T> classOfT, String prefix) {
+        if(prefix == null)
+            throw new IllegalArgumentException("prefix cannot be null");
+
+        if(classOfT != String.class && classOfT != Integer.class && classOfT != Double.class && classOfT != Boolean.class)
+            throw new IllegalArgumentException("Only String, Integer, Double or Boolean types are supported");
+
+        String[] keys = this.sortedKeys();
+        int from = Arrays.binarySearch(keys, prefix);
+        if(from < 0)
+            from = -from - 1;
+
+        Map<String, T> result = new LinkedHashMap<>();
+        for (int i = from; i < keys.length && keys[i].startsWith(prefix); i++) {
+            T value = valueOf(classOfT, this.values.get(keys[i]), null);
+            if(value != null)
+                result.put(keys[i], value);
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Creates a snapshot of the same configuration which reuses the unchanged values of the previous snapshot.
+     */
+    ConfigSnapshot sharingWith(ConfigSnapshot previous) {
+        if(previous == null || previous == this)
+            return this;
+
+        return new ConfigSnapshot(this.json, StructuralSharing.share(this.root, previous.root), this.version);
+    }
+
+    private String[] sortedKeys() {
+        String[] keys = this.sortedKeys;
+        if(keys == null) {
+            keys = this.values.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            this.sortedKeys = keys;
+        }
+
+        return keys;
+    }
+
+    JsonElement root() {
+        return this.root;
+    }
+
+    JsonElement get(String key) {
+        return this.values.get(key);
+    }
+
+    static <T> T valueOf(Class<T> classOfT, JsonElement element, T defaultValue) {
+        if(element == null || element.isJsonNull())
+            return defaultValue;
+
+        try {
+            return ConfigurationParser.convert(classOfT, element);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
+    // the version of a configuration which has no snapshot yet, the same as the version of its snapshot
+    static long versionOf(String config) {
+        try {
+            return fromJson(config).version();
+        } catch (ParsingFailedException | IllegalArgumentException e) {
+            return hash(config);
+        }
+    }
+
+    // FNV-1a over the utf-16 code units, used for the configurations which are not json
+    static long hash(CharSequence text) {
+        return hash(FNV_OFFSET_BASIS, text);
+    }
+
+    // FNV-1a over a canonical form of the tree: the members of an object are combined
+    // independently of their order, and the numbers are compared by their value
+    static long hash(JsonElement root) {
+        return hash(FNV_OFFSET_BASIS, root);
+    }
+
+    // the hash of a tree is built bottom-up from the helpers below, so a parser or a decoder
+    // can compute it in the same pass which builds the tree, starting from the root seed
+    static long rootSeed() {
+        return FNV_OFFSET_BASIS;
+    }
+
+    static long hash(long seed, JsonElement element) {
+        if(element == null || element.isJsonNull())
+            return hash(seed, 'n');
+
+        if(element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            long members = 0;
+            for (Map.Entry<String, JsonElement> entry : object.entrySet())
+                members += memberHash(hash(memberSeed(entry.getKey()), entry.getValue()));
+
+            return objectHash(seed, object.size(), members);
+        }
+
+        if(element.isJsonArray()) {
+            long items = arraySeed(seed);
+            for (JsonElement item : element.getAsJsonArray())
+                items = hash(items, item);
+
+            return arrayHash(items, element.getAsJsonArray().size());
+        }
+
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if(primitive.isBoolean())
+            return hash(seed, primitive.getAsBoolean() ? 't' : 'f');
+
+        if(primitive.isNumber())
+            return hash(hash(seed, 'd'), canonicalNumber(primitive.getAsString()));
+
+        return hash(hash(seed, 's'), primitive.getAsString());
+    }
+
+    static long memberSeed(String key) {
+        return hash(hash(FNV_OFFSET_BASIS, 'k'), key);
+    }
+
+    // the finalizer of MurmurHash3, so the sum of the member hashes doesn't cancel out
+    static long memberHash(long valueHash) {
+        valueHash ^= valueHash >>> 33;
+        valueHash *= 0xff51afd7ed558ccdL;
+        valueHash ^= valueHash >>> 33;
+        valueHash *= 0xc4ceb33fe1a85ec3L;
+        return valueHash ^ (valueHash >>> 33);
+    }
+
+    static long objectHash(long seed, int size, long members) {
+        return hash(hash(hash(seed, '{'), size), members);
+    }
+
+    static long arraySeed(long seed) {
+        return hash(seed, '[');
+    }
+
+    // the size closes the array, so the items can be hashed before it's known
+    static long arrayHash(long items, int size) {
+        return hash(hash(items, ']'), size);
+    }
+
+    private static long hash(long hash, CharSequence text) {
+        hash = hash(hash, text.length());
+        for (int i = 0; i < text.length(); i++)
+            hash = hash(hash, text.charAt(i));
+
+        return hash;
+    }
+
+    private static long hash(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++, value >>>= 8)
+            hash = hash(hash, (char) (value & 0xFF));
+
+        return hash;
+    }
+
+    private static long hash(long hash, char c) {
+        return (hash ^ c) * FNV_PRIME;
+    }
+
+    private static String canonicalNumber(String number) {
+        // an integer without trailing zeros is already canonical, e.g. '-42', but not '420' or '4.2'
+        int start = number.startsWith("-") ? 1 : 0;
+        boolean integer = number.length() > start && number.charAt(start) != '0' && number.charAt(number.length() - 1) != '0';
+        for (int i = start; integer && i < number.length(); i++)
+            integer = number.charAt(i) >= '0' && number.charAt(i) <= '9';
+
+        if(integer)
+            return number;
+
+        try {
+            BigDecimal value = new BigDecimal(number);
+            if(value.signum() == 0)
+                return "0";
+
+            value = value.stripTrailingZeros();
+            return value.scale() == 0 ? value.unscaledValue().toString() : value.unscaledValue() + "e" + (-value.scale());
+        } catch (NumberFormatException e) {
+            // NaN or Infinity of a CBOR float
+            return number;
+        }
+    }
+
+    boolean isSnapshotOf(String json) {
+        String current = this.json();
+        return current == json || current.equals(json);
+    }
+}
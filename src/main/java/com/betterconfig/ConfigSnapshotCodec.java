@@ -0,0 +1,341 @@
+package com.betterconfig;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes and decodes the binary form of a {@link ConfigSnapshot}.
+ * <p>Layout: magic, format version, flags, body length, body, CRC32 of the stored body.
+ * The body holds a dictionary of every object key and the typed value tree referring the keys
+ * by their index; it's deflated when the compressed flag is set. The json text is not stored,
+ * the decoded snapshot rebuilds it from the values. The first format version also stored the
+ * json text after the tree, it's still decoded.</p>
+ */
+class ConfigSnapshotCodec {
+    private static final int MAGIC = 0x42435342;
+    private static final byte TEXT_FORMAT_VERSION = 1;
+    private static final byte FORMAT_VERSION = 2;
+    private static final byte FLAG_COMPRESSED = 1;
+    private static final int HEADER_SIZE = 10;
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte LONG = 3;
+    private static final byte NUMBER = 4;
+    private static final byte STRING = 5;
+    private static final byte ARRAY = 6;
+    private static final byte OBJECT = 7;
+
+    static byte[] encode(ConfigSnapshot snapshot, boolean compress) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        collectKeys(snapshot.root(), dictionary);
+
+        Output body = new Output();
+        body.writeVarInt(dictionary.size());
+        for (String key : dictionary.keySet())
+            body.writeString(key);
+
+        writeValue(body, snapshot.root(), dictionary);
+
+        byte[] stored = compress ? deflate(body.toByteArray()) : body.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(stored);
+
+        return ByteBuffer.allocate(HEADER_SIZE + stored.length + Long.BYTES)
+                .putInt(MAGIC)
+                .put(FORMAT_VERSION)
+                .put(compress ? FLAG_COMPRESSED : 0)
+                .putInt(body.size())
+                .put(stored)
+                .putLong(crc.getValue())
+                .array();
+    }
+
+    static ConfigSnapshot decode(byte[] snapshot) throws IOException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            byte version = buffer.getInt() == MAGIC ? buffer.get() : -1;
+            if(version != FORMAT_VERSION && version != TEXT_FORMAT_VERSION)
+                throw new IOException("The snapshot has an unknown format.");
+
+            byte flags = buffer.get();
+            int bodyLength = buffer.getInt();
+            int storedLength = snapshot.length - HEADER_SIZE - Long.BYTES;
+            if(storedLength < 0)
+                throw new IOException("The snapshot is truncated.");
+
+            CRC32 crc = new CRC32();
+            crc.update(snapshot, HEADER_SIZE, storedLength);
+            if(ByteBuffer.wrap(snapshot, HEADER_SIZE + storedLength, Long.BYTES).getLong() != crc.getValue())
+                throw new IOException("The snapshot is corrupted.");
+
+            ByteBuffer body = (flags & FLAG_COMPRESSED) != 0
+                    ? ByteBuffer.wrap(inflate(snapshot, HEADER_SIZE, storedLength, bodyLength))
+                    : ByteBuffer.wrap(snapshot, HEADER_SIZE, storedLength);
+
+            String[] keys = new String[readVarInt(body)];
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = readString(body);
+
+            // the version is computed while the tree is decoded
+            TreeReader tree = new TreeReader(body, keys);
+            JsonElement root = tree.readValue(ConfigSnapshot.rootSeed());
+            return new ConfigSnapshot(version == TEXT_FORMAT_VERSION ? readString(body) : null, root, tree.hash);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("The snapshot is truncated.", e);
+        }
+    }
+
+    private static void collectKeys(JsonElement element, Map<String, Integer> dictionary) {
+        if(element == null)
+            return;
+
+        if(element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                dictionary.putIfAbsent(entry.getKey(), dictionary.size());
+                collectKeys(entry.getValue(), dictionary);
+            }
+        } else if(element.isJsonArray()) {
+            for (JsonElement item : element.getAsJsonArray())
+                collectKeys(item, dictionary);
+        }
+    }
+
+    private static void writeValue(Output output, JsonElement element, Map<String, Integer> dictionary) {
+        if(element == null || element.isJsonNull()) {
+            output.write(NULL);
+        } else if(element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            output.write(OBJECT);
+            output.writeVarInt(object.size());
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                output.writeVarInt(dictionary.get(entry.getKey()));
+                writeValue(output, entry.getValue(), dictionary);
+            }
+        } else if(element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            output.write(ARRAY);
+            output.writeVarInt(array.size());
+            for (JsonElement item : array)
+                writeValue(output, item, dictionary);
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if(primitive.isBoolean()) {
+                output.write(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else if(primitive.isNumber()) {
+                String number = primitive.getAsString();
+                Long value = asLong(number);
+                if(value != null) {
+                    output.write(LONG);
+                    output.writeVarLong((value << 1) ^ (value >> 63));
+                } else {
+                    output.write(NUMBER);
+                    output.writeString(number);
+                }
+            } else {
+                output.write(STRING);
+                output.writeString(primitive.getAsString());
+            }
+        }
+    }
+
+
+    private static Number readNumber(String number) {
+        try {
+            // keeps the precision and the scale of the original text, e.g. '1.50'
+            return new BigDecimal(number);
+        } catch (NumberFormatException e) {
+            // NaN or Infinity of a CBOR float
+            return Double.valueOf(number);
+        }
+    }
+
+    private static Long asLong(String number) {
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if((c < '0' || c > '9') && !(i == 0 && c == '-'))
+                return null;
+        }
+
+        try {
+            long value = Long.parseLong(number);
+            // only the canonical form is stored as a number, e.g. '007' is kept as text
+            return Long.toString(value).equals(number) ? value : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int readVarInt(ByteBuffer buffer) throws IOException {
+        long value = readVarLong(buffer);
+        if(value < 0 || value > Integer.MAX_VALUE)
+            throw new IOException("The snapshot contains an invalid length.");
+
+        return (int) value;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0)
+                return value;
+        }
+
+        throw new IOException("The snapshot contains an invalid number.");
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = readVarInt(buffer);
+        if(length > buffer.remaining())
+            throw new IOException("The snapshot is truncated.");
+
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static byte[] deflate(byte[] body) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished())
+                output.write(chunk, 0, deflater.deflate(chunk));
+
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset, int length, int bodyLength) throws IOException {
+        if(bodyLength < 0)
+            throw new IOException("The snapshot contains an invalid length.");
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            byte[] body = new byte[bodyLength];
+            int read = 0;
+            while (read < bodyLength && !inflater.finished()) {
+                int inflated = inflater.inflate(body, read, bodyLength - read);
+                if(inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+
+                read += inflated;
+            }
+
+            if(read != bodyLength)
+                throw new IOException("The snapshot is truncated.");
+
+            return body;
+        } catch (DataFormatException e) {
+            throw new IOException("The snapshot is corrupted.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static class TreeReader {
+        private final ByteBuffer buffer;
+        private final String[] keys;
+        private long hash;
+
+        private TreeReader(ByteBuffer buffer, String[] keys) {
+            this.buffer = buffer;
+            this.keys = keys;
+        }
+
+        private JsonElement readValue(long seed) throws IOException {
+            byte type = this.buffer.get();
+            switch (type) {
+                case NULL:
+                    return this.leaf(seed, JsonNull.INSTANCE);
+                case FALSE:
+                    return this.leaf(seed, new JsonPrimitive(false));
+                case TRUE:
+                    return this.leaf(seed, new JsonPrimitive(true));
+                case LONG:
+                    long zigZag = readVarLong(this.buffer);
+                    return this.leaf(seed, new JsonPrimitive((zigZag >>> 1) ^ -(zigZag & 1)));
+                case NUMBER:
+                    return this.leaf(seed, new JsonPrimitive(readNumber(readString(this.buffer))));
+                case STRING:
+                    return this.leaf(seed, new JsonPrimitive(readString(this.buffer)));
+                case ARRAY:
+                    int length = readVarInt(this.buffer);
+                    JsonArray array = new JsonArray(Math.min(length, this.buffer.remaining()));
+                    long items = ConfigSnapshot.arraySeed(seed);
+                    for (int i = 0; i < length; i++) {
+                        array.add(this.readValue(items));
+                        items = this.hash;
+                    }
+
+                    this.hash = ConfigSnapshot.arrayHash(items, array.size());
+                    return array;
+                case OBJECT:
+                    int size = readVarInt(this.buffer);
+                    JsonObject object = new JsonObject();
+                    long members = 0;
+                    for (int i = 0; i < size; i++) {
+                        String key = this.keys[readVarInt(this.buffer)];
+                        object.add(key, this.readValue(ConfigSnapshot.memberSeed(key)));
+                        members += ConfigSnapshot.memberHash(this.hash);
+                    }
+
+                    this.hash = ConfigSnapshot.objectHash(seed, object.size(), members);
+                    return object;
+                default:
+                    throw new IOException("The snapshot contains an unknown value type: " + type);
+            }
+        }
+
+        private JsonElement leaf(long seed, JsonElement leaf) {
+            this.hash = ConfigSnapshot.hash(seed, leaf);
+            return leaf;
+        }
+    }
+
+    private static class Output extends ByteArrayOutputStream {
+
+        private void writeVarInt(int value) {
+            this.writeVarLong(value);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                this.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+
+            this.write((int) value);
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            this.writeVarInt(bytes.length);
+            this.write(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.betterconfig;
+
+/**
+ * Pins a {@link ConfigSnapshot} to the current thread for the duration of a unit of work, e.g. a web request,
+ * so every value read in it comes from the same configuration version without touching the client.
+ * <p>The scope has to be closed on the same thread, which restores the previously pinned snapshot,
+ * so pooled and virtual threads never keep a snapshot after the work is done:</p>
+ * <pre>{@code
+ * try (ConfigSnapshotScope scope = ConfigSnapshotScope.open(client.getSnapshot())) {
+ *     boolean enabled = ConfigSnapshotScope.current().getValue(Boolean.class, "isFeatureEnabled", false);
+ * }
+ * }</pre>
+ */
+public final class ConfigSnapshotScope implements AutoCloseable {
+    private static final ThreadLocal<ConfigSnapshot> CURRENT = new ThreadLocal<>();
+    private final ConfigSnapshot previous;
+    private final Thread owner;
+    private boolean closed;
+
+    private ConfigSnapshotScope(ConfigSnapshot previous) {
+        this.previous = previous;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Pins the given snapshot to the current thread until the returned scope is closed.
+     *
+     * @param snapshot the snapshot to pin.
+     * @return the scope which unpins the snapshot when it's closed.
+     * @throws IllegalArgumentException when the snapshot is null.
+     */
+    public static ConfigSnapshotScope open(ConfigSnapshot snapshot) {
+        if(snapshot == null)
+            throw new IllegalArgumentException("snapshot cannot be null");
+
+        ConfigSnapshotScope scope = new ConfigSnapshotScope(CURRENT.get());
+        CURRENT.set(snapshot);
+        return scope;
+    }
+
+    /**
+     * Gets the snapshot pinned to the current thread.
+     *
+     * @return the pinned snapshot, or {@code null} when there is no open scope on the current thread.
+     */
+    public static ConfigSnapshot current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Unpins the snapshot and restores the one which was pinned when the scope was opened.
+     *
+     * @throws IllegalStateException when it's called on a different thread than the one which opened the scope.
+     */
+    @Override
+    public void close() {
+        if(Thread.currentThread() != this.owner)
+            throw new IllegalStateException("The scope has to be closed on the thread which opened it");
+
+        if(this.closed)
+            return;
+
+        this.closed = true;
+        if(this.previous != null)
+            CURRENT.set(this.previous);
+        else
+            CURRENT.remove();
+    }
+}
@@ -0,0 +1,133 @@
+package com.betterconfig;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads a json configuration into the same element tree as {@link com.google.gson.JsonParser} and computes
+ * the version of the configuration in the same pass, so the tree isn't walked again to hash it.
+ * It's as lenient as {@link com.google.gson.JsonParser}.
+ */
+class ConfigTreeReader {
+    private final JsonReader reader;
+    private long hash;
+
+    ConfigTreeReader(Reader reader) {
+        this.reader = new JsonReader(reader);
+        this.reader.setLenient(true);
+    }
+
+    /**
+     * Reads the whole document.
+     *
+     * @return the root of the tree, {@link JsonNull} for an empty document.
+     * @throws JsonParseException when the document is not a valid json.
+     */
+    JsonElement read() {
+        try {
+            try {
+                this.reader.peek();
+            } catch (EOFException e) {
+                this.hash = ConfigSnapshot.hash(ConfigSnapshot.rootSeed(), JsonNull.INSTANCE);
+                return JsonNull.INSTANCE;
+            }
+
+            JsonElement root = this.read(ConfigSnapshot.rootSeed());
+            if(!root.isJsonNull() && this.reader.peek() != JsonToken.END_DOCUMENT)
+                throw new JsonSyntaxException("Did not consume the entire document.");
+
+            return root;
+        } catch (MalformedJsonException | NumberFormatException | EOFException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        } catch (StackOverflowError e) {
+            throw new JsonParseException("Failed parsing JSON source to Json", e);
+        }
+    }
+
+    /**
+     * Gets the version of the document read by {@link #read()}, see {@link ConfigSnapshot#version()}.
+     *
+     * @return the version.
+     */
+    long version() {
+        return this.hash;
+    }
+
+    private JsonElement read(long seed) throws IOException {
+        JsonToken token = this.reader.peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+                return this.readObject(seed);
+            case BEGIN_ARRAY:
+                return this.readArray(seed);
+            case STRING:
+                return this.leaf(seed, new JsonPrimitive(this.reader.nextString()));
+            case NUMBER:
+                return this.leaf(seed, new JsonPrimitive(new LazilyParsedNumber(this.reader.nextString())));
+            case BOOLEAN:
+                return this.leaf(seed, new JsonPrimitive(this.reader.nextBoolean()));
+            case NULL:
+                this.reader.nextNull();
+                return this.leaf(seed, JsonNull.INSTANCE);
+            default:
+                throw new JsonSyntaxException("Unexpected token: " + token);
+        }
+    }
+
+    private JsonObject readObject(long seed) throws IOException {
+        JsonObject object = new JsonObject();
+        long members = 0;
+        this.reader.beginObject();
+        while (this.reader.hasNext()) {
+            String key = this.reader.nextName();
+            long memberSeed = ConfigSnapshot.memberSeed(key);
+
+            // a duplicate key replaces the previous value, so its hash is taken back
+            JsonElement replaced = object.get(key);
+            if(replaced != null)
+                members -= ConfigSnapshot.memberHash(ConfigSnapshot.hash(memberSeed, replaced));
+
+            object.add(key, this.read(memberSeed));
+            members += ConfigSnapshot.memberHash(this.hash);
+        }
+
+        this.reader.endObject();
+        this.hash = ConfigSnapshot.objectHash(seed, object.size(), members);
+        return object;
+    }
+
+    private JsonArray readArray(long seed) throws IOException {
+        JsonArray array = new JsonArray();
+        long items = ConfigSnapshot.arraySeed(seed);
+        this.reader.beginArray();
+        while (this.reader.hasNext()) {
+            array.add(this.read(items));
+            items = this.hash;
+        }
+
+        this.reader.endArray();
+        this.hash = ConfigSnapshot.arrayHash(items, array.size());
+        return array;
+    }
+
+    private JsonElement leaf(long seed, JsonElement leaf) {
+        this.hash = ConfigSnapshot.hash(seed, leaf);
+        return leaf;
+    }
+}
@@ -0,0 +1,39 @@
+package com.betterconfig;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Captures a generic type for deserializing the configuration, e.g. into a {@code Map<String, Sample>}.
+ * Create it as an anonymous subclass:
+ * <pre>{@code
+ * Map<String, Sample> config = client.getConfiguration(new ConfigType<Map<String, Sample>>() {}, Collections.emptyMap());
+ * }</pre>
+ *
+ * @param <T> the captured type.
+ */
+public abstract class ConfigType<T> {
+    private final Type type;
+
+    /**
+     * Captures the type argument of the anonymous subclass.
+     *
+     * @throws IllegalArgumentException when the type argument is missing.
+     */
+    protected ConfigType() {
+        Type superclass = this.getClass().getGenericSuperclass();
+        if(!(superclass instanceof ParameterizedType))
+            throw new IllegalArgumentException("type argument is missing");
+
+        this.type = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+    }
+
+    /**
+     * Gets the captured type.
+     *
+     * @return the type.
+     */
+    public Type getType() {
+        return this.type;
+    }
+}
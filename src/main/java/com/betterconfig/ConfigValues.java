@@ -0,0 +1,47 @@
+package com.betterconfig;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The values of a set of {@link ConfigKey}s read at once from the same configuration snapshot.
+ */
+public final class ConfigValues {
+    private final ConfigSnapshot snapshot;
+    private final Map<ConfigKey<?>, Object> values;
+
+    ConfigValues(ConfigSnapshot snapshot, ConfigKey<?>[] keys) {
+        this.snapshot = snapshot;
+        this.values = new IdentityHashMap<>(keys.length);
+        for (ConfigKey<?> key : keys)
+            this.values.put(key, key.read(snapshot));
+    }
+
+    /**
+     * Gets the value of the given key. A key which was not requested is read from the same snapshot.
+     *
+     * @param key the key.
+     * @param <T> the type of the value.
+     * @return the value, or the default value of the key when it's missing or its value has a different type.
+     * @throws IllegalArgumentException when the key is null.
+     */
+    public <T> T get(ConfigKey<T> key) {
+        if(key == null)
+            throw new IllegalArgumentException("key cannot be null");
+
+        Object value = this.values.get(key);
+        if(value == null && !this.values.containsKey(key))
+            return key.read(this.snapshot);
+
+        return key.type().cast(value);
+    }
+
+    /**
+     * Gets the snapshot which the values were read from.
+     *
+     * @return the snapshot.
+     */
+    public ConfigSnapshot snapshot() {
+        return this.snapshot;
+    }
+}
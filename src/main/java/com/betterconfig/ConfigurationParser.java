@@ -1,6 +1,7 @@
 package com.betterconfig;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import org.slf4j.Logger;
@@ -11,7 +12,9 @@ import org.slf4j.LoggerFactory;
  */
 public class ConfigurationParser {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationParser.class);
-    private final Gson gson = new Gson();
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new MethodHandleAdapterFactory())
+            .create();
     private final JsonParser parser = new JsonParser();
 
     /**
@@ -36,6 +39,31 @@ public class ConfigurationParser {
         }
     }
 
+    /**
+     * Parses a json string into the given generic {@code <T>} type.
+     *
+     * @param type the captured type of T.
+     * @param config the json config.
+     * @param <T> the type of the desired object.
+     * @return the parsed object.
+     * @throws ParsingFailedException when the parsing failed.
+     * @throws IllegalArgumentException when the type is null, or the config is empty or null.
+     */
+    public <T> T parse(ConfigType<T> type, String config) throws ParsingFailedException, IllegalArgumentException {
+        if(type == null)
+            throw new IllegalArgumentException("type cannot be null");
+
+        if(config == null || config.isEmpty())
+            throw new IllegalArgumentException("config is null or empty");
+
+        try {
+            return gson.fromJson(config, type.getType());
+        } catch (Exception e) {
+            LOGGER.error("Parsing of the json ("+ config +") failed", e);
+            throw new ParsingFailedException("Parsing failed.", config);
+        }
+    }
+
     /**
      * Parses a json element identified by the {@code key} from the given json string into a primitive type (Boolean, Double, Integer or String).
      * @param classOfT the class of T.
@@ -57,18 +85,157 @@ public class ConfigurationParser {
             throw new IllegalArgumentException("Only String, Integer, Double or Boolean types are supported");
 
         try {
-            JsonElement element = this.parser.parse(config).getAsJsonObject().get(key);
-            if (classOfT == String.class)
-                return classOfT.cast(element.getAsString());
-            else if (classOfT == Integer.class)
-                return classOfT.cast(element.getAsInt());
-            else if (classOfT == Double.class)
-                return classOfT.cast(element.getAsDouble());
-            else
-                return classOfT.cast(element.getAsBoolean());
+            return convert(classOfT, this.parser.parse(config).getAsJsonObject().get(key));
         } catch (Exception e) {
             LOGGER.error("Parsing of the json ("+ config +") failed", e);
             throw new ParsingFailedException("Parsing failed.", config);
         }
     }
+
+    /**
+     * Parses a json element identified by the nested {@code path} from the given json string into the given {@code <T>} type.
+     * @param classOfT the class of T.
+     * @param config the json config.
+     * @param path the compiled path of the value.
+     * @param <T> the type of the desired object.
+     * @return the parsed value.
+     * @throws ParsingFailedException when the parsing failed, or the value is missing.
+     * @throws IllegalArgumentException when the path is null, or the config is empty or null.
+     */
+    public <T> T parseValueAt(Class<T> classOfT, String config, ConfigPath path) throws ParsingFailedException, IllegalArgumentException {
+        if(path == null)
+            throw new IllegalArgumentException("path cannot be null");
+
+        if(config == null || config.isEmpty())
+            throw new IllegalArgumentException("config is null or empty");
+
+        try {
+            return this.convertAny(classOfT, path.resolve(this.parser.parse(config)));
+        } catch (Exception e) {
+            LOGGER.error("Parsing of the json ("+ config +") failed", e);
+            throw new ParsingFailedException("Parsing failed.", config);
+        }
+    }
+
+    /**
+     * Parses the given configuration snapshot into the given {@code <T>} type.
+     *
+     * @param classOfT the class of T.
+     * @param snapshot the configuration snapshot.
+     * @param <T> the type of the desired object.
+     * @return the parsed object.
+     * @throws ParsingFailedException when the parsing failed.
+     * @throws IllegalArgumentException when the snapshot is null.
+     */
+    public <T> T parseSnapshot(Class<T> classOfT, ConfigSnapshot snapshot) throws ParsingFailedException, IllegalArgumentException {
+        if(snapshot == null)
+            throw new IllegalArgumentException("snapshot cannot be null");
+
+        try {
+            return gson.fromJson(snapshot.root(), classOfT);
+        } catch (Exception e) {
+            LOGGER.error("Parsing of the json ("+ snapshot.json() +") failed", e);
+            throw new ParsingFailedException("Parsing failed.", snapshot.json());
+        }
+    }
+
+    /**
+     * Parses the given configuration snapshot into the given generic {@code <T>} type.
+     *
+     * @param type the captured type of T.
+     * @param snapshot the configuration snapshot.
+     * @param <T> the type of the desired object.
+     * @return the parsed object.
+     * @throws ParsingFailedException when the parsing failed.
+     * @throws IllegalArgumentException when the type or the snapshot is null.
+     */
+    public <T> T parseSnapshot(ConfigType<T> type, ConfigSnapshot snapshot) throws ParsingFailedException, IllegalArgumentException {
+        if(type == null)
+            throw new IllegalArgumentException("type cannot be null");
+
+        if(snapshot == null)
+            throw new IllegalArgumentException("snapshot cannot be null");
+
+        try {
+            return gson.fromJson(snapshot.root(), type.getType());
+        } catch (Exception e) {
+            LOGGER.error("Parsing of the json ("+ snapshot.json() +") failed", e);
+            throw new ParsingFailedException("Parsing failed.", snapshot.json());
+        }
+    }
+
+    /**
+     * Reads a value identified by the {@code key} from the given configuration snapshot as a primitive type (Boolean, Double, Integer or String).
+     * @param classOfT the class of T.
+     * @param snapshot the configuration snapshot.
+     * @param key the key of the value.
+     * @param <T> the type of the desired object.
+     * @return the parsed value.
+     * @throws ParsingFailedException when the value is missing or has a different type.
+     * @throws IllegalArgumentException when the key is empty or null, the snapshot is null, or when the {@code <T>} type is not supported.
+     */
+    public <T> T parseSnapshotValue(Class<T> classOfT, ConfigSnapshot snapshot, String key) throws ParsingFailedException, IllegalArgumentException {
+        if(key == null || key.isEmpty())
+            throw new IllegalArgumentException("key is null or empty");
+
+        if(snapshot == null)
+            throw new IllegalArgumentException("snapshot cannot be null");
+
+        if(classOfT != String.class && classOfT != Integer.class && classOfT != Double.class && classOfT != Boolean.class)
+            throw new IllegalArgumentException("Only String, Integer, Double or Boolean types are supported");
+
+        try {
+            return convert(classOfT, snapshot.get(key));
+        } catch (Exception e) {
+            LOGGER.error("Parsing of the value for key '" + key + "' failed", e);
+            throw new ParsingFailedException("Parsing failed.", snapshot.json());
+        }
+    }
+
+    /**
+     * Reads a value identified by the nested {@code path} from the given configuration snapshot as the given {@code <T>} type.
+     * The path is resolved against the already parsed tree of the snapshot.
+     * @param classOfT the class of T.
+     * @param snapshot the configuration snapshot.
+     * @param path the compiled path of the value.
+     * @param <T> the type of the desired object.
+     * @return the parsed value.
+     * @throws ParsingFailedException when the value is missing or has a different type.
+     * @throws IllegalArgumentException when the path or the snapshot is null.
+     */
+    public <T> T parseSnapshotValueAt(Class<T> classOfT, ConfigSnapshot snapshot, ConfigPath path) throws ParsingFailedException, IllegalArgumentException {
+        if(path == null)
+            throw new IllegalArgumentException("path cannot be null");
+
+        if(snapshot == null)
+            throw new IllegalArgumentException("snapshot cannot be null");
+
+        try {
+            return this.convertAny(classOfT, path.resolve(snapshot.root()));
+        } catch (Exception e) {
+            LOGGER.error("Parsing of the value for path '" + path + "' failed", e);
+            throw new ParsingFailedException("Parsing failed.", snapshot.json());
+        }
+    }
+
+    private <T> T convertAny(Class<T> classOfT, JsonElement element) {
+        if(element == null || element.isJsonNull())
+            throw new IllegalArgumentException("value is missing");
+
+        if(classOfT == String.class || classOfT == Integer.class || classOfT == Double.class || classOfT == Boolean.class)
+            return convert(classOfT, element);
+
+        return this.gson.fromJson(element, classOfT);
+    }
+
+    static <T> T convert(Class<T> classOfT, JsonElement element) {
+        if (classOfT == String.class)
+            return classOfT.cast(element.getAsString());
+        else if (classOfT == Integer.class)
+            return classOfT.cast(element.getAsInt());
+        else if (classOfT == Double.class)
+            return classOfT.cast(element.getAsDouble());
+        else
+            return classOfT.cast(element.getAsBoolean());
+    }
 }
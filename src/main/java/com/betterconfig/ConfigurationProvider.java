@@ -1,6 +1,7 @@
 package com.betterconfig;
 
 import java.io.Closeable;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -52,6 +53,26 @@ public interface ConfigurationProvider extends Closeable {
      */
     <T> CompletableFuture<T> getConfigurationAsync(Class<T> classOfT, T defaultValue);
 
+    /**
+     * Gets the configuration synchronously parsed to a generic {@code <T>} type, e.g. a {@code Map<String, Sample>}.
+     *
+     * @param type the captured type of T, e.g. {@code new ConfigType<Map<String, Sample>>() {}}.
+     * @param defaultValue in case of any failure, this value will be returned.
+     * @param <T> the type of the desired object.
+     * @return an object of type T containing the whole configuration.
+     */
+    <T> T getConfiguration(ConfigType<T> type, T defaultValue);
+
+    /**
+     * Gets the configuration asynchronously parsed to a generic {@code <T>} type.
+     *
+     * @param type the captured type of T, e.g. {@code new ConfigType<Map<String, Sample>>() {}}.
+     * @param defaultValue in case of any failure, this value will be returned.
+     * @param <T> the type of the desired object.
+     * @return a future which computes an object of type T containing the whole configuration.
+     */
+    <T> CompletableFuture<T> getConfigurationAsync(ConfigType<T> type, T defaultValue);
+
     /**
      * Gets a value synchronously as T from the configuration identified by the given {@code key}.
      *
@@ -74,6 +95,119 @@ public interface ConfigurationProvider extends Closeable {
      */
     <T> CompletableFuture<T> getValueAsync(Class<T> classOfT, String key, T defaultValue);
 
+    /**
+     * Gets a value synchronously as T from the configuration identified by the given nested {@code path}.
+     *
+     * @param classOfT the class of T. Primitive values are read as {@link String}, {@link Integer}, {@link Double}
+     *                 or {@link Boolean}, any other type is deserialized from the value.
+     * @param path the compiled path of the value, e.g. {@code ConfigPath.compile("a.b[2].c")}.
+     * @param defaultValue in case of any failure, this value will be returned.
+     * @param <T> the type of the desired config value.
+     * @return the configuration value identified by the given path.
+     */
+    <T> T getValueAt(Class<T> classOfT, ConfigPath path, T defaultValue);
+
+    /**
+     * Gets a value asynchronously as T from the configuration identified by the given nested {@code path}.
+     *
+     * @param classOfT the class of T. Primitive values are read as {@link String}, {@link Integer}, {@link Double}
+     *                 or {@link Boolean}, any other type is deserialized from the value.
+     * @param path the compiled path of the value, e.g. {@code ConfigPath.compile("a.b[2].c")}.
+     * @param defaultValue in case of any failure, this value will be returned.
+     * @param <T> the type of the desired config value.
+     * @return a future which computes the configuration value identified by the given path.
+     */
+    <T> CompletableFuture<T> getValueAtAsync(Class<T> classOfT, ConfigPath path, T defaultValue);
+
+    /**
+     * Gets the values of the given keys synchronously, all of them are read from the same configuration snapshot.
+     *
+     * @param keys the typed keys of the values.
+     * @return the values of the keys.
+     */
+    ConfigValues getValues(ConfigKey<?>... keys);
+
+    /**
+     * Gets the values of the given keys asynchronously, all of them are read from the same configuration snapshot.
+     *
+     * @param keys the typed keys of the values.
+     * @return a future which computes the values of the keys.
+     */
+    CompletableFuture<ConfigValues> getValuesAsync(ConfigKey<?>... keys);
+
+    /**
+     * Gets the values synchronously as T of every key starting with the given {@code prefix}, e.g. {@code "checkout."}.
+     *
+     * @param classOfT the class of T. Only {@link String}, {@link Integer}, {@link Double} or {@link Boolean} types are supported.
+     * @param prefix the common prefix of the keys, an empty prefix matches every key.
+     * @param <T> the type of the desired config values.
+     * @return an unmodifiable map of the matching keys and their values, ordered by the keys.
+     */
+    <T> Map<String, T> getValuesByPrefix(Class<T> classOfT, String prefix);
+
+    /**
+     * Gets the values asynchronously as T of every key starting with the given {@code prefix}, e.g. {@code "checkout."}.
+     *
+     * @param classOfT the class of T. Only {@link String}, {@link Integer}, {@link Double} or {@link Boolean} types are supported.
+     * @param prefix the common prefix of the keys, an empty prefix matches every key.
+     * @param <T> the type of the desired config values.
+     * @return a future which computes an unmodifiable map of the matching keys and their values, ordered by the keys.
+     */
+    <T> CompletableFuture<Map<String, T>> getValuesByPrefixAsync(Class<T> classOfT, String prefix);
+
+    /**
+     * Gets an immutable snapshot of the current configuration synchronously. The values read from the
+     * snapshot are consistent with each other, they are not affected by a refresh happening meanwhile,
+     * so a request can read all of its values from one snapshot instead of reading them one by one.
+     *
+     * @return the snapshot of the configuration. It's empty if there is no configuration available.
+     */
+    ConfigSnapshot getSnapshot();
+
+    /**
+     * Gets an immutable snapshot of the current configuration asynchronously.
+     *
+     * @return a future which computes the snapshot of the configuration. Completes with an empty
+     * snapshot if there is no configuration available.
+     */
+    CompletableFuture<ConfigSnapshot> getSnapshotAsync();
+
+    /**
+     * Gets a handle of a value identified by the given {@code key}, which is updated whenever a refreshed
+     * configuration changes the value. Obtain the handle once and read it with {@link LiveValue#get()}
+     * instead of calling {@link #getValue(Class, String, Object)} on every use. The same handle is returned
+     * for the same key, type and default value, so requesting it repeatedly doesn't register new handles.
+     *
+     * @param classOfT the class of T. Only {@link String}, {@link Integer}, {@link Double} or {@link Boolean} types are supported.
+     * @param key the identifier of the configuration value.
+     * @param defaultValue the value of the handle when the key is missing or its value has a different type.
+     * @param <T> the type of the desired config value.
+     * @return the handle of the configuration value.
+     */
+    <T> LiveValue<T> getLiveValue(Class<T> classOfT, String key, T defaultValue);
+
+    /**
+     * Gets a handle of a boolean value identified by the given {@code key}, which is updated whenever
+     * a refreshed configuration changes the value. The same handle is returned for the same key and default value.
+     *
+     * @param key the identifier of the configuration value.
+     * @param defaultValue the value of the handle when the key is missing or its value is not a boolean.
+     * @return the handle of the configuration value.
+     */
+    LiveBoolean getLiveBoolean(String key, boolean defaultValue);
+
+    /**
+     * Gets a handle of a boolean value identified by the given {@code key}, which the JIT compiler can
+     * treat as a constant until a refreshed configuration changes the value. It's meant for the rarely
+     * changing flags checked in the hottest code paths, e.g. kill switches. The same handle is returned
+     * for the same key and default value.
+     *
+     * @param key the identifier of the configuration value.
+     * @param defaultValue the value of the handle when the key is missing or its value is not a boolean.
+     * @return the handle of the configuration value.
+     */
+    StableBoolean getStableBoolean(String key, boolean defaultValue);
+
     /**
      * Initiates a force refresh synchronously on the cached configuration.
      */
@@ -0,0 +1,198 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import org.brotli.dec.BrotliInputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams a response body through its content decoding (gzip or brotli) into the json or CBOR decoder,
+ * and counts the transferred and the decompressed bytes on the way.
+ */
+class DecodedBody implements Closeable {
+    private final CountingInputStream wire;
+    private final CountingInputStream decoded;
+    private final MediaType contentType;
+
+    private DecodedBody(CountingInputStream wire, InputStream decoded, MediaType contentType) {
+        this.wire = wire;
+        this.decoded = new CountingInputStream(decoded);
+        this.contentType = contentType;
+    }
+
+    static DecodedBody open(Response response) throws IOException {
+        CountingInputStream wire = new CountingInputStream(response.body().byteStream());
+        String encoding = response.header("Content-Encoding");
+        MediaType contentType = response.body().contentType();
+
+        if(encoding == null || encoding.equalsIgnoreCase("identity"))
+            return new DecodedBody(wire, wire, contentType);
+
+        if(encoding.equalsIgnoreCase("gzip") || encoding.equalsIgnoreCase("x-gzip"))
+            return new DecodedBody(wire, new GZIPInputStream(wire), contentType);
+
+        if(encoding.equalsIgnoreCase("br"))
+            return new DecodedBody(wire, new BrotliInputStream(wire), contentType);
+
+        throw new IOException("Unsupported content encoding: " + encoding);
+    }
+
+    /**
+     * Decodes the body into a snapshot, the json is parsed while it's being decompressed.
+     *
+     * @return the snapshot.
+     * @throws ParsingFailedException when the body is not a valid json, the exception holds the body as text.
+     * @throws IOException when the body can't be read or decompressed.
+     */
+    ConfigSnapshot readSnapshot() throws IOException, ParsingFailedException {
+        if(this.isCbor())
+            return CborDecoder.decodeSnapshot(this.readBytes());
+
+        TextCapturingReader reader = new TextCapturingReader(new InputStreamReader(this.decoded, StandardCharsets.UTF_8));
+        try {
+            // the version is computed while the json is parsed
+            ConfigTreeReader tree = new ConfigTreeReader(reader);
+            JsonElement root = tree.read();
+            this.finish();
+            String text = reader.text();
+            if(text.isEmpty())
+                throw new ParsingFailedException("The body is empty.", text);
+
+            return new ConfigSnapshot(text, root, tree.version());
+        } catch (JsonParseException e) {
+            reader.drain();
+            this.finish();
+            throw new ParsingFailedException("Parsing failed.", reader.text());
+        }
+    }
+
+    /**
+     * Decodes the body into a json element tree.
+     *
+     * @return the json tree.
+     * @throws JsonParseException when the body is not a valid json.
+     * @throws IOException when the body can't be read or decompressed.
+     */
+    JsonElement readTree() throws IOException {
+        if(this.isCbor())
+            return CborDecoder.decode(this.readBytes());
+
+        JsonElement root = new JsonParser().parse(new InputStreamReader(this.decoded, StandardCharsets.UTF_8));
+        this.finish();
+        return root;
+    }
+
+    long compressedBytes() {
+        return this.wire.count;
+    }
+
+    long uncompressedBytes() {
+        return this.decoded.count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.decoded.close();
+    }
+
+    private boolean isCbor() {
+        return this.contentType != null && "cbor".equalsIgnoreCase(this.contentType.subtype());
+    }
+
+    private byte[] readBytes() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = this.decoded.read(buffer)) != -1)
+            output.write(buffer, 0, read);
+
+        return output.toByteArray();
+    }
+
+    private void finish() throws IOException {
+        // reads the remaining bytes, e.g. the gzip trailer, so every transferred byte is counted
+        byte[] buffer = new byte[512];
+        while (this.decoded.read(buffer) != -1) { }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if(b != -1)
+                this.count++;
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if(read > 0)
+                this.count += read;
+
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            this.count += skipped;
+            return skipped;
+        }
+    }
+
+    private static class TextCapturingReader extends FilterReader {
+        private final StringBuilder text = new StringBuilder();
+
+        private TextCapturingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if(c != -1)
+                this.text.append((char) c);
+
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int read = super.read(cbuf, off, len);
+            if(read > 0)
+                this.text.append(cbuf, off, read);
+
+            return read;
+        }
+
+        private void drain() throws IOException {
+            char[] buffer = new char[8192];
+            while (this.read(buffer, 0, buffer.length) != -1) { }
+        }
+
+        private String text() {
+            return this.text.toString();
+        }
+    }
+}
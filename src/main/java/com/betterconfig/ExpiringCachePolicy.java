@@ -9,7 +9,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * to maintain the internally stored configuration.
  */
 public class ExpiringCachePolicy extends RefreshPolicy {
-    private Instant lastRefreshedTime;
+    private volatile Instant lastRefreshedTime;
     private int cacheRefreshIntervalInSeconds;
     private boolean asyncRefresh;
     private final AtomicBoolean isFetching;
@@ -34,34 +34,67 @@ public class ExpiringCachePolicy extends RefreshPolicy {
 
     @Override
     public CompletableFuture<String> getConfigurationJsonAsync() {
-        if(Instant.now().isAfter(lastRefreshedTime.plusSeconds(this.cacheRefreshIntervalInSeconds))) {
+        if(this.isExpired()) {
             if(!this.isFetching.compareAndSet(false, true))
-                return this.asyncRefresh && this.initialized.get()
-                        ? CompletableFuture.completedFuture(super.cache().get())
+                return this.asyncRefresh && this.hasCachedValue()
+                        ? super.getCachedValueAsync()
                         : this.fetchingFuture;
 
 
-            this.fetchingFuture = super.fetcher().getConfigurationJsonStringAsync()
-                    .thenApplyAsync(response -> {
-                        String cached = super.cache().get();
-                        if (response.isFetched() && !response.config().equals(cached)) {
-                            super.cache().set(response.config());
-                            this.isFetching.set(false);
-                            this.initialized.set(true);
-                        }
-
-                        if(!response.isFailed())
-                            this.lastRefreshedTime = Instant.now();
-
-                        return response.isFetched() ? response.config() : cached;
+            this.fetchingFuture = super.fetchAsync()
+                    .thenComposeAsync(response -> {
+                        if (!response.isFetched())
+                            return super.getCachedValueAsync()
+                                    .thenApply(cached -> this.refreshed(response, cached));
+
+                        return super.isChangedAsync(response.version())
+                                .thenCompose(changed -> {
+                                    if (changed) {
+                                        return super.store(response)
+                                                .thenApply(v -> {
+                                                    this.isFetching.set(false);
+                                                    this.initialized.set(true);
+                                                    return this.refreshed(response, null);
+                                                });
+                                    }
+
+                                    return super.unchanged(response).thenApply(stored -> this.refreshed(response, stored));
+                                });
                     });
 
-            return this.asyncRefresh && this.initialized.get()
-                    ? CompletableFuture.completedFuture(super.cache().get())
+            return this.asyncRefresh && this.hasCachedValue()
+                    ? super.getCachedValueAsync()
                     : this.fetchingFuture;
         }
 
-        return CompletableFuture.completedFuture(super.cache().get());
+        return super.cache().getAsync();
+    }
+
+    @Override
+    ConfigSnapshot currentSnapshot() {
+        // a read of an expired configuration refreshes it
+        return this.isExpired() ? null : super.currentSnapshot();
+    }
+
+    @Override
+    void sourceChanged() {
+        // the next read refreshes the cache
+        this.lastRefreshedTime = Instant.MIN;
+    }
+
+    private boolean isExpired() {
+        return Instant.now().isAfter(this.lastRefreshedTime.plusSeconds(this.cacheRefreshIntervalInSeconds));
+    }
+
+    private boolean hasCachedValue() {
+        return this.initialized.get() || super.hasServableValue();
+    }
+
+    private String refreshed(FetchResponse response, String cached) {
+        if(!response.isFailed())
+            this.lastRefreshedTime = Instant.now();
+
+        return response.isFetched() && cached == null ? response.config() : cached;
     }
 
     /**
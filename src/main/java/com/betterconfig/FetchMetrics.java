@@ -0,0 +1,68 @@
+package com.betterconfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the transfer statistics of a {@link ConfigFetcher}. Only the responses which carried
+ * a configuration or a delta are counted, the '304 Not Modified' responses have no body.
+ */
+public class FetchMetrics {
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private volatile long lastCompressedBytes;
+    private volatile long lastUncompressedBytes;
+
+    /**
+     * Gets how many response bodies were downloaded.
+     *
+     * @return the number of the downloaded bodies.
+     */
+    public long fetches() {
+        return this.fetches.get();
+    }
+
+    /**
+     * Gets how many bytes were transferred in the response bodies, as they were sent over the network.
+     *
+     * @return the number of the transferred bytes.
+     */
+    public long compressedBytes() {
+        return this.compressedBytes.get();
+    }
+
+    /**
+     * Gets how many bytes the response bodies contained after decompression.
+     *
+     * @return the number of the decompressed bytes.
+     */
+    public long uncompressedBytes() {
+        return this.uncompressedBytes.get();
+    }
+
+    /**
+     * Gets how many bytes were transferred in the latest response body.
+     *
+     * @return the number of the transferred bytes of the latest fetch.
+     */
+    public long lastCompressedBytes() {
+        return this.lastCompressedBytes;
+    }
+
+    /**
+     * Gets how many bytes the latest response body contained after decompression.
+     *
+     * @return the number of the decompressed bytes of the latest fetch.
+     */
+    public long lastUncompressedBytes() {
+        return this.lastUncompressedBytes;
+    }
+
+    void bodyRead(long compressed, long uncompressed) {
+        this.fetches.incrementAndGet();
+        this.compressedBytes.addAndGet(compressed);
+        this.uncompressedBytes.addAndGet(uncompressed);
+        this.lastCompressedBytes = compressed;
+        this.lastUncompressedBytes = uncompressed;
+    }
+}
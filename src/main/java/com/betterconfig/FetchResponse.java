@@ -15,6 +15,8 @@ public class FetchResponse {
 
     private Status status;
     private String config;
+    private String eTag;
+    private ConfigSnapshot snapshot;
 
     /**
      * Gets whether a new configuration value was fetched or not.
@@ -53,8 +55,36 @@ public class FetchResponse {
         return this.config;
     }
 
+    /**
+     * Gets the entity tag of the fetched configuration, should be used when the response
+     * has a {@code FetchResponse.Status.FETCHED} status code.
+     *
+     * @return the entity tag of the fetched config, or {@code null} when the server didn't send any.
+     */
+    public String eTag() {
+        return this.eTag;
+    }
+
+    long version() {
+        return this.snapshot != null ? this.snapshot.version() : ConfigSnapshot.versionOf(this.config);
+    }
+
+    ConfigSnapshot snapshot() {
+        return this.snapshot;
+    }
+
     FetchResponse(Status status, String config) {
+        this(status, config, null);
+    }
+
+    FetchResponse(Status status, String config, String eTag) {
         this.status = status;
         this.config = config;
+        this.eTag = eTag;
+    }
+
+    FetchResponse(Status status, ConfigSnapshot snapshot, String eTag) {
+        this(status, snapshot.json(), eTag);
+        this.snapshot = snapshot;
     }
 }
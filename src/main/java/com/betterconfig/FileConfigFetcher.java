@@ -0,0 +1,134 @@
+package com.betterconfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link ConfigFetcher} which reads the configuration from a local file (e.g. a mounted Kubernetes ConfigMap)
+ * instead of the network. The directory of the file is watched, the file is read again only after something
+ * changed in it, and the refresh policy is notified about the change right away.
+ */
+public class FileConfigFetcher extends ConfigFetcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileConfigFetcher.class);
+    private final Path file;
+    private final AtomicBoolean modified;
+    private final Object lock = new Object();
+    private WatchService watchService;
+    private volatile boolean watching;
+    private String lastConfig;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param file the path of the configuration file.
+     * @throws IllegalArgumentException when the given path is null.
+     */
+    public FileConfigFetcher(Path file) {
+        super(null, null, false);
+
+        if(file == null)
+            throw new IllegalArgumentException("file cannot be null");
+
+        this.file = file.toAbsolutePath();
+        this.modified = new AtomicBoolean(true);
+    }
+
+    /**
+     * Reads the configuration file when it was modified since the last read.
+     *
+     * @return a {@link FetchResponse} instance which holds the result of the read.
+     */
+    @Override
+    public CompletableFuture<FetchResponse> getConfigurationJsonStringAsync() {
+        if(!this.modified.getAndSet(false) && this.watching)
+            return CompletableFuture.completedFuture(new FetchResponse(FetchResponse.Status.NOTMODIFIED, null));
+
+        synchronized (this.lock) {
+            try {
+                String config = new String(Files.readAllBytes(this.file), StandardCharsets.UTF_8);
+                if(config.equals(this.lastConfig)) {
+                    LOGGER.debug("Read was successful: config not modified");
+                    return CompletableFuture.completedFuture(new FetchResponse(FetchResponse.Status.NOTMODIFIED, null));
+                }
+
+                LOGGER.debug("Read was successful: new config read");
+                this.lastConfig = config;
+                return CompletableFuture.completedFuture(new FetchResponse(FetchResponse.Status.FETCHED, config));
+            } catch (IOException e) {
+                LOGGER.error("An error occurred during reading the configuration file.", e);
+                this.modified.set(true);
+                return CompletableFuture.completedFuture(new FetchResponse(FetchResponse.Status.FAILED, null));
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> preConnectAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this.lock) {
+            if(this.watchService != null)
+                this.watchService.close();
+        }
+    }
+
+    @Override
+    void watch(Runnable onChange) {
+        Path directory = this.file.getParent();
+        synchronized (this.lock) {
+            if(this.watchService != null)
+                return;
+
+            try {
+                this.watchService = FileSystems.getDefault().newWatchService();
+                // the whole directory is watched, because the mounted files are usually replaced through symbolic links
+                directory.register(this.watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+            } catch (IOException e) {
+                LOGGER.error("Watching the directory of the configuration file failed, changes are picked up on the next refresh.", e);
+                return;
+            }
+
+            this.watching = true;
+        }
+
+        WatchService service = this.watchService;
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = service.take();
+                    key.pollEvents();
+                    key.reset();
+
+                    this.modified.set(true);
+                    try {
+                        onChange.run();
+                    } catch (Exception e) {
+                        LOGGER.error("An error occurred during the refresh of the modified configuration.", e);
+                    }
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                LOGGER.debug("Stopped watching the configuration file.");
+            }
+        }, "betterconfig-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+}
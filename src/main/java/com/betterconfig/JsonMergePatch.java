@@ -0,0 +1,33 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Map;
+
+/**
+ * Applies a json merge patch (RFC 7396) without modifying the target, the values
+ * which are not touched by the patch are shared between the target and the result.
+ */
+class JsonMergePatch {
+
+    static JsonElement apply(JsonElement target, JsonElement patch) {
+        if(patch == null || !patch.isJsonObject())
+            return patch;
+
+        JsonObject result = new JsonObject();
+        if(target != null && target.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : target.getAsJsonObject().entrySet())
+                result.add(entry.getKey(), entry.getValue());
+        }
+
+        for (Map.Entry<String, JsonElement> entry : patch.getAsJsonObject().entrySet()) {
+            if(entry.getValue().isJsonNull())
+                result.remove(entry.getKey());
+            else
+                result.add(entry.getKey(), apply(result.get(entry.getKey()), entry.getValue()));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+
+/**
+ * A handle of a boolean configuration value, e.g. a feature flag, which is kept up to date by the client.
+ * It's the unboxed variant of {@link LiveValue}, obtain it once with
+ * {@link ConfigurationProvider#getLiveBoolean(String, boolean)} and read it with {@link #get()}.
+ */
+public final class LiveBoolean extends LiveHandle {
+    private final String key;
+    private final boolean defaultValue;
+    private volatile boolean value;
+
+    LiveBoolean(String key, boolean defaultValue) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+        this.value = defaultValue;
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return the value, or the default value when the key is missing or its value is not a boolean.
+     */
+    public boolean get() {
+        return this.value;
+    }
+
+    /**
+     * Gets the identifier of the configuration value.
+     *
+     * @return the key.
+     */
+    @Override
+    public String key() {
+        return this.key;
+    }
+
+    @Override
+    void update(JsonElement element) {
+        this.value = ConfigSnapshot.valueOf(Boolean.class, element, this.defaultValue);
+    }
+
+    @Override
+    boolean isEquivalent(LiveHandle other) {
+        return this.defaultValue == ((LiveBoolean) other).defaultValue;
+    }
+}
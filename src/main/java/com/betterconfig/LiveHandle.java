@@ -0,0 +1,18 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+
+/**
+ * A value holder which is updated by {@link LiveValues} when its key changes.
+ */
+abstract class LiveHandle {
+    abstract String key();
+
+    abstract void update(JsonElement element);
+
+    /**
+     * Decides whether the given handle of the same key and class reads the value the same way,
+     * so it can be shared instead of registering another one.
+     */
+    abstract boolean isEquivalent(LiveHandle other);
+}
@@ -0,0 +1,57 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+
+import java.util.Objects;
+
+/**
+ * A handle of a configuration value which is kept up to date by the client. The value is
+ * updated when a refreshed configuration changes it, so reading it is only a field read.
+ * <p>Obtain a handle once, e.g. when your component is constructed, with
+ * {@link ConfigurationProvider#getLiveValue(Class, String, Object)}, and read it with {@link #get()}.</p>
+ *
+ * @param <T> the type of the value.
+ */
+public final class LiveValue<T> extends LiveHandle {
+    private final Class<T> classOfT;
+    private final String key;
+    private final T defaultValue;
+    private volatile T value;
+
+    LiveValue(Class<T> classOfT, String key, T defaultValue) {
+        this.classOfT = classOfT;
+        this.key = key;
+        this.defaultValue = defaultValue;
+        this.value = defaultValue;
+    }
+
+    /**
+     * Gets the current value.
+     *
+     * @return the value, or the default value when the key is missing or its value has a different type.
+     */
+    public T get() {
+        return this.value;
+    }
+
+    /**
+     * Gets the identifier of the configuration value.
+     *
+     * @return the key.
+     */
+    @Override
+    public String key() {
+        return this.key;
+    }
+
+    @Override
+    void update(JsonElement element) {
+        this.value = ConfigSnapshot.valueOf(this.classOfT, element, this.defaultValue);
+    }
+
+    @Override
+    boolean isEquivalent(LiveHandle other) {
+        LiveValue<?> value = (LiveValue<?>) other;
+        return this.classOfT == value.classOfT && Objects.equals(this.defaultValue, value.defaultValue);
+    }
+}
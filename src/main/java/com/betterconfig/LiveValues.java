@@ -0,0 +1,99 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the live value handles of a refresh policy up to date. When a new configuration is stored,
+ * only the handles of the keys whose value changed are updated; thanks to the structural sharing
+ * of the snapshots an unchanged value is the same instance, so it's detected by a reference check.
+ * <p>Equivalent handles are registered only once, so a publication walks at most one handle per
+ * distinct key, type and default value, no matter how many times a handle is requested.</p>
+ */
+class LiveValues {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LiveValues.class);
+    private final Map<String, List<LiveHandle>> handles = new ConcurrentHashMap<>();
+    private ConfigSnapshot current;
+    private long publications;
+
+    /**
+     * Registers a handle and initializes it from the latest published snapshot. When there is none,
+     * the handle is initialized from the snapshot of the loader, unless a configuration is published meanwhile.
+     * The loader is called outside of the lock, as it may wait for the first fetch which publishes a snapshot.
+     * When an equivalent handle is already registered, that one is returned instead of the given handle.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends LiveHandle> T register(T handle, Callable<ConfigSnapshot> snapshotLoader) {
+        T registered = handle;
+        long publications;
+        synchronized (this) {
+            List<LiveHandle> keyHandles = this.handles.computeIfAbsent(handle.key(), key -> new CopyOnWriteArrayList<>());
+            for (LiveHandle existing : keyHandles) {
+                if(existing.getClass() == handle.getClass() && existing.isEquivalent(handle)) {
+                    registered = (T) existing;
+                    break;
+                }
+            }
+
+            if(registered == handle)
+                keyHandles.add(handle);
+
+            if(this.current != null) {
+                registered.update(this.current.get(handle.key()));
+                return registered;
+            }
+
+            publications = this.publications;
+        }
+
+        // an equivalent handle may still be waiting for its first snapshot, so it's initialized here too
+        ConfigSnapshot snapshot = load(snapshotLoader);
+        synchronized (this) {
+            if(snapshot != null && this.publications == publications)
+                registered.update(snapshot.get(handle.key()));
+        }
+
+        return registered;
+    }
+
+    /**
+     * Updates the handles of the changed keys from the snapshot of a newly stored configuration.
+     */
+    synchronized void publish(Callable<ConfigSnapshot> snapshotLoader) {
+        ConfigSnapshot previous = this.current;
+        this.current = null;
+        if(this.handles.isEmpty())
+            return;
+
+        ConfigSnapshot snapshot = load(snapshotLoader);
+        this.current = snapshot;
+        if(snapshot == null || snapshot == previous)
+            return;
+
+        this.publications++;
+        for (Map.Entry<String, List<LiveHandle>> entry : this.handles.entrySet()) {
+            JsonElement value = snapshot.get(entry.getKey());
+            if(previous != null && value == previous.get(entry.getKey()))
+                continue;
+
+            for (LiveHandle handle : entry.getValue())
+                handle.update(value);
+        }
+    }
+
+    private static ConfigSnapshot load(Callable<ConfigSnapshot> snapshotLoader) {
+        try {
+            return snapshotLoader.call();
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during updating the live values", e);
+            return null;
+        }
+    }
+}
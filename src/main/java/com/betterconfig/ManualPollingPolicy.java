@@ -19,15 +19,22 @@ public class ManualPollingPolicy extends RefreshPolicy {
 
     @Override
     public CompletableFuture<String> getConfigurationJsonAsync() {
-        return super.fetcher().getConfigurationJsonStringAsync()
-                .thenApply(response -> {
-                    String cached = super.cache().get();
-                    String config = response.config();
-                    if (response.isFetched() && !config.equals(cached)) {
-                        super.cache().set(response.config());
-                    }
+        return super.fetchAsync()
+                .thenCompose(response -> {
+                    if (!response.isFetched())
+                        return super.getCachedValueAsync();
 
-                    return response.isFetched() ? config : cached;
+                    String config = response.config();
+                    return super.isChangedAsync(response.version())
+                            .thenCompose(changed -> changed
+                                    ? super.store(response).thenApply(v -> config)
+                                    : super.unchanged(response));
                 });
     }
+
+    @Override
+    ConfigSnapshot currentSnapshot() {
+        // every read fetches the configuration
+        return null;
+    }
 }
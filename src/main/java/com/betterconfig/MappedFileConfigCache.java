@@ -0,0 +1,229 @@
+package com.betterconfig;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent cache implementation which stores the configuration and its entity tag in a memory-mapped file.
+ * <p>A new value is written into a temporary file first which then atomically replaces the previous file,
+ * so a reader never sees a partially written configuration. The loaded file is kept in memory until
+ * it's replaced, so reading an unchanged file costs only a file attribute lookup.</p>
+ * <p>A json configuration is stored in the binary form of its {@link ConfigSnapshot}, so loading
+ * the file after a restart doesn't need to parse the json again. The binary form holds only the values,
+ * so after a restart the configuration is served as compact json, which has the same version.</p>
+ */
+public class MappedFileConfigCache extends ConfigCache {
+    private static final int MAGIC = 0x42434643;
+    private static final int TEXT_FORMAT_VERSION = 1;
+    private static final int SNAPSHOT_FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private final Path path;
+    private final boolean compress;
+    private volatile Entry loaded;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param path the path of the cache file, the parent directory must exist.
+     * @throws IllegalArgumentException when the path is null.
+     */
+    public MappedFileConfigCache(Path path) {
+        this(path, false);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param path the path of the cache file, the parent directory must exist.
+     * @param compress whether the stored snapshot should be compressed, which is worth for large configurations.
+     * @throws IllegalArgumentException when the path is null.
+     */
+    public MappedFileConfigCache(Path path, boolean compress) {
+        if(path == null)
+            throw new IllegalArgumentException("path cannot be null");
+
+        this.path = path.toAbsolutePath();
+        this.compress = compress;
+    }
+
+    @Override
+    protected String read() throws Exception {
+        Entry entry = this.load();
+        return entry == null ? null : entry.value();
+    }
+
+    @Override
+    protected String readETag() throws Exception {
+        Entry entry = this.load();
+        return entry == null ? null : entry.eTag;
+    }
+
+    @Override
+    protected ConfigSnapshot readSnapshot(String value) throws Exception {
+        Entry entry = this.load();
+        return entry == null ? null : entry.snapshot;
+    }
+
+    @Override
+    protected void write(String value) throws Exception {
+        this.write(value, null);
+    }
+
+    @Override
+    protected void write(String value, String eTag) throws Exception {
+        // the snapshot of a fetched configuration is handed over, a value set directly is parsed
+        ConfigSnapshot snapshot = super.writtenSnapshot(value);
+        try {
+            if(snapshot == null && value != null)
+                snapshot = ConfigSnapshot.fromJson(value);
+        } catch (ParsingFailedException e) {
+            // not a json, stored as text
+        }
+
+        if(snapshot != null && !snapshot.root().isJsonObject() && !snapshot.root().isJsonArray())
+            snapshot = null;
+
+        byte[] valueBytes = snapshot != null
+                ? snapshot.toBinary(this.compress)
+                : value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        byte[] eTagBytes = eTag == null ? null : eTag.getBytes(StandardCharsets.UTF_8);
+        int size = HEADER_SIZE + length(eTagBytes) + length(valueBytes) + Long.BYTES;
+
+        Path temp = Files.createTempFile(this.path.getParent(), this.path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC)
+                        .putInt(snapshot != null ? SNAPSHOT_FORMAT_VERSION : TEXT_FORMAT_VERSION)
+                        .putInt(eTagBytes == null ? -1 : eTagBytes.length)
+                        .putInt(valueBytes == null ? -1 : valueBytes.length);
+
+                if(eTagBytes != null)
+                    buffer.put(eTagBytes);
+
+                if(valueBytes != null)
+                    buffer.put(valueBytes);
+
+                buffer.putLong(checksum(eTagBytes, valueBytes));
+                buffer.force();
+            }
+
+            Files.move(temp, this.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        this.loaded = new Entry(value, eTag, snapshot, Files.readAttributes(this.path, BasicFileAttributes.class));
+    }
+
+    private Entry load() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(this.path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        Entry current = this.loaded;
+        if(current != null && current.isLoadedFrom(attributes))
+            return current;
+
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Entry entry = this.decode(buffer, attributes);
+            this.loaded = entry;
+            return entry;
+        }
+    }
+
+    private Entry decode(ByteBuffer buffer, BasicFileAttributes attributes) throws IOException {
+        try {
+            int version = buffer.getInt() == MAGIC ? buffer.getInt() : -1;
+            if(version != TEXT_FORMAT_VERSION && version != SNAPSHOT_FORMAT_VERSION)
+                throw new IOException("The cache file '" + this.path + "' has an unknown format.");
+
+            int eTagLength = buffer.getInt();
+            int valueLength = buffer.getInt();
+            byte[] eTagBytes = readBytes(buffer, eTagLength);
+            byte[] valueBytes = readBytes(buffer, valueLength);
+
+            if(buffer.getLong() != checksum(eTagBytes, valueBytes))
+                throw new IOException("The cache file '" + this.path + "' is corrupted.");
+
+            String eTag = eTagBytes == null ? null : new String(eTagBytes, StandardCharsets.UTF_8);
+            if(valueBytes != null && version == SNAPSHOT_FORMAT_VERSION) {
+                // the json is serialized from the snapshot only when it's read
+                return new Entry(null, eTag, ConfigSnapshot.fromBinary(valueBytes), attributes);
+            }
+
+            return new Entry(
+                    valueBytes == null ? null : new String(valueBytes, StandardCharsets.UTF_8),
+                    eTag,
+                    null,
+                    attributes);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("The cache file '" + this.path + "' is truncated.", e);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) {
+        if(length < 0)
+            return null;
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static long checksum(byte[] eTagBytes, byte[] valueBytes) {
+        CRC32 crc = new CRC32();
+        if(eTagBytes != null)
+            crc.update(eTagBytes);
+
+        if(valueBytes != null)
+            crc.update(valueBytes);
+
+        return crc.getValue();
+    }
+
+    private static class Entry {
+        private final String value;
+        private final String eTag;
+        private final ConfigSnapshot snapshot;
+        private final Object fileKey;
+        private final FileTime lastModifiedTime;
+        private final long size;
+
+        private Entry(String value, String eTag, ConfigSnapshot snapshot, BasicFileAttributes attributes) {
+            this.value = value;
+            this.eTag = eTag;
+            this.snapshot = snapshot;
+            this.fileKey = attributes.fileKey();
+            this.lastModifiedTime = attributes.lastModifiedTime();
+            this.size = attributes.size();
+        }
+
+        private String value() {
+            return this.value != null || this.snapshot == null ? this.value : this.snapshot.json();
+        }
+
+        private boolean isLoadedFrom(BasicFileAttributes attributes) {
+            return Objects.equals(this.fileKey, attributes.fileKey())
+                    && this.lastModifiedTime.equals(attributes.lastModifiedTime())
+                    && this.size == attributes.size();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.betterconfig;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Binds the configuration json to plain java classes through method handles instead of the reflective
+ * field access of Gson. The constructor and the field accessors of a class are looked up only once,
+ * when Gson asks for the adapter of the class, and Gson caches the adapter afterwards.
+ * <p>Only the classes which Gson would bind reflectively with the default settings are handled, and which
+ * have a no-arg constructor and no custom adapter annotations; the rest is left to Gson, e.g. the subclasses
+ * of {@link Map} and {@link Collection} are still bound by the map and collection adapters.</p>
+ */
+class MethodHandleAdapterFactory implements TypeAdapterFactory {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        Class<? super T> rawType = typeToken.getRawType();
+        if(!isBindable(rawType) || typeToken.getType() != rawType)
+            return null;
+
+        // the factory comes before the built-in adapters of gson, so it only takes over what gson would bind reflectively
+        if(!(gson.getDelegateAdapter(this, typeToken) instanceof ReflectiveTypeAdapterFactory.Adapter))
+            return null;
+
+        try {
+            Supplier<Object> constructor = constructor(rawType);
+            if(constructor == null)
+                return null;
+
+            Map<String, BoundField> fields = new HashMap<>();
+            List<BoundField> ordered = new ArrayList<>();
+            for (Class<?> type = rawType; type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if(Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()) || field.isSynthetic())
+                        continue;
+
+                    if(field.isAnnotationPresent(JsonAdapter.class) || !isResolved(field.getGenericType()))
+                        return null;
+
+                    BoundField bound = new BoundField(field, gson.getAdapter(TypeToken.get(field.getGenericType())));
+                    for (String name : names(field)) {
+                        // gson rejects the duplicated names, it's left to report them
+                        if(fields.put(name, bound) != null)
+                            return null;
+                    }
+
+                    ordered.add(bound);
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            TypeAdapter<T> adapter = (TypeAdapter<T>) new Adapter(constructor, fields, ordered);
+            return adapter;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // e.g. a security manager denies the access, the reflective adapter of gson is used
+            return null;
+        }
+    }
+
+    private static boolean isBindable(Class<?> type) {
+        if(type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum() || type.isAnonymousClass() || type.isLocalClass())
+            return false;
+
+        if(Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type))
+            return false;
+
+        if(Modifier.isAbstract(type.getModifiers()) || type.getTypeParameters().length > 0 || type.isAnnotationPresent(JsonAdapter.class))
+            return false;
+
+        if(type.isMemberClass() && !Modifier.isStatic(type.getModifiers()))
+            return false;
+
+        String name = type.getName();
+        return !name.startsWith("java.") && !name.startsWith("javax.") && !name.startsWith("android.")
+                && !name.startsWith("com.google.gson.");
+    }
+
+    // the field types of a non-generic class may still refer the type variables of a generic superclass
+    private static boolean isResolved(Type type) {
+        if(type instanceof Class)
+            return true;
+
+        if(type instanceof ParameterizedType) {
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                if(!isResolved(argument))
+                    return false;
+            }
+
+            return true;
+        }
+
+        if(type instanceof GenericArrayType)
+            return isResolved(((GenericArrayType) type).getGenericComponentType());
+
+        if(type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                if(!isResolved(bound))
+                    return false;
+            }
+
+            return true;
+        }
+
+        return !(type instanceof TypeVariable);
+    }
+
+    private static List<String> names(Field field) {
+        List<String> names = new ArrayList<>();
+        SerializedName serializedName = field.getAnnotation(SerializedName.class);
+        if(serializedName == null) {
+            names.add(field.getName());
+            return names;
+        }
+
+        names.add(serializedName.value());
+        for (String alternate : serializedName.alternate())
+            names.add(alternate);
+
+        return names;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> type) throws ReflectiveOperationException {
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        // a lambda class is defined next to this class, so it can only refer the classes visible from here
+        if(isAccessible(type) && isAccessible(constructor.getModifiers(), type) && isVisible(type)) {
+            try {
+                MethodHandle handle = LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // falls back to the method handle below
+            }
+        }
+
+        constructor.setAccessible(true);
+        MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return (Object) handle.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static boolean isAccessible(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+            if(!isAccessible(current.getModifiers(), current))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isAccessible(int modifiers, Class<?> type) {
+        return Modifier.isPublic(modifiers)
+                || (!Modifier.isPrivate(modifiers) && type.getPackage() == MethodHandleAdapterFactory.class.getPackage()
+                        && type.getClassLoader() == MethodHandleAdapterFactory.class.getClassLoader());
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, MethodHandleAdapterFactory.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static class BoundField {
+        private final String name;
+        private final boolean primitive;
+        private final TypeAdapter<Object> adapter;
+        private final MethodHandle setter;
+        private final MethodHandle getter;
+
+        @SuppressWarnings("unchecked")
+        private BoundField(Field field, TypeAdapter<?> adapter) throws IllegalAccessException {
+            field.setAccessible(true);
+            SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            this.name = serializedName != null ? serializedName.value() : field.getName();
+            this.primitive = field.getType().isPrimitive();
+            this.adapter = (TypeAdapter<Object>) adapter;
+            this.setter = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+            this.getter = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+        }
+
+        private void read(JsonReader in, Object instance) throws IOException {
+            Object value = this.adapter.read(in);
+            // like gson, a null is not assigned to a primitive field
+            if(value == null && this.primitive)
+                return;
+
+            try {
+                this.setter.invokeExact(instance, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void write(JsonWriter out, Object instance) throws IOException {
+            Object value;
+            try {
+                value = (Object) this.getter.invokeExact(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+
+            out.name(this.name);
+            this.adapter.write(out, value);
+        }
+    }
+
+    private static class Adapter extends TypeAdapter<Object> {
+        private final Supplier<Object> constructor;
+        private final Map<String, BoundField> fields;
+        private final List<BoundField> ordered;
+
+        private Adapter(Supplier<Object> constructor, Map<String, BoundField> fields, List<BoundField> ordered) {
+            this.constructor = constructor;
+            this.fields = fields;
+            this.ordered = ordered;
+        }
+
+        @Override
+        public Object read(JsonReader in) throws IOException {
+            if(in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Object instance = this.constructor.get();
+            in.beginObject();
+            while (in.hasNext()) {
+                BoundField field = this.fields.get(in.nextName());
+                if(field == null)
+                    in.skipValue();
+                else
+                    field.read(in, instance);
+            }
+
+            in.endObject();
+            return instance;
+        }
+
+        @Override
+        public void write(JsonWriter out, Object value) throws IOException {
+            if(value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            for (BoundField field : this.ordered)
+                field.write(out, value);
+
+            out.endObject();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.betterconfig;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The public interface of a refresh policy which's implementors
@@ -11,6 +12,11 @@ import java.util.concurrent.CompletableFuture;
 public abstract class RefreshPolicy implements Closeable {
     private final ConfigCache cache;
     private final ConfigFetcher configFetcher;
+    private volatile Long storedVersion;
+    private final AtomicReference<ConfigSnapshot> currentSnapshot = new AtomicReference<>();
+    private volatile CompletableFuture<Void> storedETagLoaded;
+    private volatile ConfigSnapshot bootstrap;
+    private final LiveValues liveValues = new LiveValues();
 
     /**
      * Through this getter, child classes can use the fetcher to
@@ -41,6 +47,7 @@ public abstract class RefreshPolicy implements Closeable {
     RefreshPolicy(ConfigFetcher configFetcher, ConfigCache cache) {
         this.configFetcher = configFetcher;
         this.cache = cache;
+        configFetcher.watch(this::sourceChanged);
     }
 
     /**
@@ -57,15 +64,216 @@ public abstract class RefreshPolicy implements Closeable {
      * @return the future which executes the refresh.
      */
     public CompletableFuture<Void> refreshAsync() {
-        return this.fetcher().getConfigurationJsonStringAsync()
-                .thenAcceptAsync(response -> {
-                    if(response.isFetched())
-                        this.cache().set(response.config());
-                });
+        return this.fetchAsync()
+                .thenComposeAsync(response -> response.isFetched()
+                        ? this.store(response)
+                        : CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * Fetches the latest configuration. Before the first fetch the entity tag of the cached configuration
+     * is read without blocking, so an unchanged configuration isn't downloaded again after a restart.
+     *
+     * @return the future which computes the fetch response.
+     */
+    CompletableFuture<FetchResponse> fetchAsync() {
+        CompletableFuture<Void> loaded = this.storedETagLoaded;
+        if(loaded == null) {
+            synchronized (this) {
+                if(this.storedETagLoaded == null)
+                    this.storedETagLoaded = this.loadStoredETag();
+
+                loaded = this.storedETagLoaded;
+            }
+        }
+
+        return loaded.thenCompose(v -> this.configFetcher.getConfigurationJsonStringAsync());
+    }
+
+    private CompletableFuture<Void> loadStoredETag() {
+        // the entity tag is sent only when the configuration it belongs to is cached too
+        return this.cache.getETagAsync()
+                .thenCompose(eTag -> eTag == null
+                        ? CompletableFuture.completedFuture(null)
+                        : this.cache.getAsync().thenAccept(config -> {
+                            if(config != null)
+                                this.configFetcher.setETag(eTag);
+                        }));
+    }
+
+    /**
+     * Called when the fetcher detects that the source of the configuration changed.
+     * By default the change is picked up on the next scheduled or requested refresh.
+     */
+    void sourceChanged() { }
+
+    /**
+     * Stores a fetched configuration in the cache. When the fetcher already decoded
+     * the configuration, its snapshot is handed to the cache, so it's not parsed again.
+     *
+     * @param response the fetch response with a {@code FETCHED} status.
+     * @return the future which completes when the configuration is stored.
+     */
+    CompletableFuture<Void> store(FetchResponse response) {
+        ConfigSnapshot snapshot = response.snapshot();
+        if(snapshot != null)
+            this.cache.cacheSnapshot(snapshot);
+
+        long version = response.version();
+        return this.cache.setAsync(response.config(), response.eTag())
+                .thenRun(() -> this.stored(response.config(), version));
+    }
+
+    /**
+     * Decides whether a configuration differs from the stored one by comparing their versions.
+     * The cache is read only until the version of the stored configuration is known,
+     * after that no cache read or full text comparison is needed.
+     *
+     * @param version the version of the configuration, see {@link ConfigSnapshot#version()}.
+     * @return the future which computes whether the configuration changed.
+     */
+    CompletableFuture<Boolean> isChangedAsync(long version) {
+        Long stored = this.storedVersion;
+        if(stored != null)
+            return CompletableFuture.completedFuture(stored != version);
+
+        return this.cache.getAsync()
+                .thenApply(cached -> cached == null || this.version(cached) != version);
+    }
+
+    /**
+     * Computes the version of a configuration, which is the version of its snapshot,
+     * or the hash of its text when it's not a json.
+     *
+     * @param config the configuration.
+     * @return the version.
+     */
+    long version(String config) {
+        try {
+            ConfigSnapshot snapshot = this.snapshot(config);
+            if(snapshot != null)
+                return snapshot.version();
+        } catch (ParsingFailedException e) {
+            // not a json
+        }
+
+        return ConfigSnapshot.versionOf(config);
+    }
+
+    /**
+     * Records the version and the snapshot of a newly stored configuration and updates the live values of its changed keys.
+     * It has to be called by the policies which put a configuration into the cache without {@link #store(FetchResponse)}.
+     *
+     * @param config the stored configuration.
+     * @param version the version of the stored configuration.
+     */
+    void stored(String config, long version) {
+        ConfigSnapshot snapshot = this.snapshotOrNull(config);
+        this.storedVersion = version;
+        this.bootstrap = null;
+        this.currentSnapshot.set(snapshot);
+        this.liveValues.publish(() -> snapshot);
+    }
+
+    /**
+     * Gets the snapshot of the configuration which a read would serve, without reading the cache.
+     * Policies which refresh the configuration on a read return null when the read has to refresh it.
+     *
+     * @return the snapshot, or null before the first configuration is loaded.
+     */
+    ConfigSnapshot currentSnapshot() {
+        return this.currentSnapshot.get();
+    }
+
+    /**
+     * Records the snapshot of a configuration served before any configuration was stored by this policy,
+     * e.g. a bootstrap or a persisted configuration. A snapshot of a stored configuration is never replaced.
+     *
+     * @param snapshot the snapshot of the served configuration.
+     */
+    void loaded(ConfigSnapshot snapshot) {
+        this.currentSnapshot.compareAndSet(null, snapshot);
+    }
+
+    /**
+     * Serves a bootstrap configuration from memory until the first configuration is stored by this policy.
+     * The bootstrap configuration is never written to the cache.
+     *
+     * @param snapshot the snapshot of the bootstrap configuration.
+     */
+    void bootstrap(ConfigSnapshot snapshot) {
+        this.bootstrap = snapshot;
+        this.loaded(snapshot);
+    }
+
+    /**
+     * Reads the cached configuration, or the bootstrap configuration while nothing is cached.
+     *
+     * @return the future which computes the configuration.
+     */
+    CompletableFuture<String> getCachedValueAsync() {
+        return this.cache.getAsync()
+                .thenApply(cached -> cached != null ? cached : this.bootstrapValue());
+    }
+
+    /**
+     * Gets whether a configuration can be served without waiting for a fetch.
+     *
+     * @return true when the configuration is cached in memory or a bootstrap configuration is loaded.
+     */
+    boolean hasServableValue() {
+        return this.cache.inMemoryValue() != null || this.bootstrap != null;
+    }
+
+    private String bootstrapValue() {
+        ConfigSnapshot bootstrap = this.bootstrap;
+        return bootstrap != null ? bootstrap.json() : null;
+    }
+
+    LiveValues liveValues() {
+        return this.liveValues;
+    }
+
+    ConfigSnapshot snapshotOrNull(String config) {
+        try {
+            return this.snapshot(config);
+        } catch (ParsingFailedException e) {
+            // not a json, it's reported by the readers of the snapshot
+            return null;
+        }
+    }
+
+    ConfigSnapshot snapshot(String config) throws ParsingFailedException {
+        ConfigSnapshot bootstrap = this.bootstrap;
+        if(bootstrap != null && config != null && bootstrap.isSnapshotOf(config))
+            return bootstrap;
+
+        ConfigSnapshot snapshot = this.cache.snapshot(config);
+        return snapshot != null || config == null || config.isEmpty() ? snapshot : ConfigSnapshot.fromJson(config);
+    }
+
+    /**
+     * Gets the configuration to serve after a fetch which didn't change the stored configuration.
+     * The stored text is served, so the text doesn't depend on the format of the last fetch.
+     *
+     * @param response the fetch response with a {@code FETCHED} status.
+     * @return the future which computes the stored configuration, or the fetched one when nothing is stored.
+     */
+    CompletableFuture<String> unchanged(FetchResponse response) {
+        String latest = this.cache.inMemoryValue();
+        if(latest != null)
+            return CompletableFuture.completedFuture(latest);
+
+        return this.cache.getAsync()
+                .thenApply(stored -> stored != null ? stored : response.config());
     }
 
     String getLatestCachedValue() {
-        return this.cache.inMemoryValue();
+        String latest = this.cache.inMemoryValue();
+        if(latest == null)
+            latest = this.cache.get();
+
+        return latest != null ? latest : this.bootstrapValue();
     }
 
     @Override
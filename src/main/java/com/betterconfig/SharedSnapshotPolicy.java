@@ -0,0 +1,335 @@
+package com.betterconfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes a {@link RefreshPolicy} which shares the latest configuration between the processes of a host.
+ * <p>The processes using the same shared file elect one of them through a file lock, only the elected
+ * process polls the latest configuration over HTTP and it publishes the result into a memory-mapped
+ * region. The other processes read the configuration from the region without any network I/O, and
+ * one of them takes over the polling when the elected process exits.</p>
+ */
+public class SharedSnapshotPolicy extends RefreshPolicy {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedSnapshotPolicy.class);
+    private static final ConfigurationParser parser = new ConfigurationParser();
+    private final ScheduledExecutorService scheduler;
+    private final CompletableFuture<Void> initFuture;
+    private final ArrayList<ConfigurationChangeListener> listeners;
+    private final SharedSnapshotRegion region;
+    private final FileChannel lockChannel;
+    private final long autoPollIntervalInNanos;
+    private volatile FileLock leaderLock;
+    private long lastSequence;
+    private Long publishedVersion;
+    private long nextFetchTime;
+
+    private SharedSnapshotPolicy(ConfigFetcher configFetcher, ConfigCache cache, Builder builder) throws IOException {
+        super(configFetcher, cache);
+
+        this.listeners = new ArrayList<>();
+
+        if(builder.listener != null)
+            this.listeners.add(builder.listener);
+
+        this.initFuture = new CompletableFuture<>();
+        this.autoPollIntervalInNanos = TimeUnit.SECONDS.toNanos(builder.autoPollIntervalInSeconds);
+        this.region = new SharedSnapshotRegion(builder.sharedFile, builder.capacityInBytes);
+        this.lockChannel = FileChannel.open(Paths.get(builder.sharedFile + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.scheduler.scheduleAtFixedRate(() -> {
+            try {
+                if(this.leaderLock == null)
+                    this.tryAcquireLeadership();
+
+                if(this.leaderLock != null)
+                    this.pollIfDue();
+                else
+                    this.readRegion();
+            } catch (Exception e) {
+                LOGGER.error("An error occurred during the shared snapshot check", e);
+            }
+        }, 0, builder.regionCheckIntervalInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CompletableFuture<String> getConfigurationJsonAsync() {
+        if(this.initFuture.isDone() || super.hasServableValue())
+            return super.getCachedValueAsync();
+
+        return this.initFuture.thenComposeAsync(v -> super.getCachedValueAsync());
+    }
+
+    @Override
+    public CompletableFuture<Void> refreshAsync() {
+        return CompletableFuture.runAsync(() -> {
+            if(this.leaderLock != null)
+                this.poll();
+            else
+                this.readRegion();
+        }, this.scheduler);
+    }
+
+    /**
+     * Gets whether this process is the elected one which fetches the configuration over HTTP.
+     *
+     * @return true if this process polls the configuration, otherwise false.
+     */
+    public boolean isLeader() {
+        return this.leaderLock != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.scheduler.shutdown();
+        try {
+            this.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        super.close();
+        this.listeners.clear();
+        this.lockChannel.close();
+        this.region.close();
+    }
+
+    /**
+     * Subscribes a new listener to the configuration changed event.
+     *
+     * @param listener the listener.
+     */
+    public synchronized void addConfigurationChangeListener(ConfigurationChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a given listener from the configuration changed event.
+     *
+     * @param listener the listener.
+     */
+    public synchronized void removeConfigurationChangeListener(ConfigurationChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private synchronized void broadcastConfigurationChanged(String newConfiguration) {
+        for (ConfigurationChangeListener listener : this.listeners)
+            listener.onConfigurationChanged(parser, newConfiguration);
+    }
+
+    private void tryAcquireLeadership() throws Exception {
+        try {
+            this.leaderLock = this.lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // another policy instance of this process holds the lock
+            return;
+        }
+
+        if(this.leaderLock == null)
+            return;
+
+        LOGGER.debug("This process became the one which polls the shared configuration.");
+
+        // continue from the configuration published by the previous leader
+        this.readRegion();
+        String eTag = super.cache().getETagAsync().get();
+        if(eTag != null)
+            super.fetcher().setETag(eTag);
+
+        this.nextFetchTime = System.nanoTime();
+    }
+
+    private void pollIfDue() {
+        if(System.nanoTime() - this.nextFetchTime < 0)
+            return;
+
+        this.nextFetchTime = System.nanoTime() + this.autoPollIntervalInNanos;
+        this.poll();
+    }
+
+    private void poll() {
+        try {
+            FetchResponse response = super.fetchAsync().get();
+            String config = response.config();
+            if (response.isFetched() && super.isChangedAsync(response.version()).get()) {
+                super.store(response).get();
+                this.broadcastConfigurationChanged(config);
+            }
+
+            if(!response.isFailed()) {
+                this.initFuture.complete(null);
+                this.publish();
+            }
+        } catch (Exception e) {
+            LOGGER.error("An error occurred during the scheduler poll execution", e);
+        }
+    }
+
+    // the region is written whenever it's empty or stale, not only on a changed fetch,
+    // otherwise a leader started from an already cached configuration would leave the
+    // followers waiting on a 304 or an unchanged fetch
+    private void publish() throws Exception {
+        String config = super.cache().getAsync().get();
+        if(config == null)
+            return;
+
+        long version = super.version(config);
+        if(this.publishedVersion != null && this.publishedVersion == version && this.region.sequence() == this.lastSequence)
+            return;
+
+        this.region.write(config, super.cache().getETagAsync().get());
+        this.lastSequence = this.region.sequence();
+        this.publishedVersion = version;
+    }
+
+    private void readRegion() {
+        long sequence = this.region.sequence();
+        if(sequence == this.lastSequence)
+            return;
+
+        SharedSnapshotRegion.Snapshot snapshot = this.region.read();
+        if(snapshot == null)
+            return;
+
+        this.lastSequence = snapshot.sequence;
+        long version = super.version(snapshot.value);
+        this.publishedVersion = version;
+        if(super.isChangedAsync(version).join()) {
+            super.cache().set(snapshot.value, snapshot.eTag);
+            super.stored(snapshot.value, version);
+            this.broadcastConfigurationChanged(snapshot.value);
+        }
+
+        this.initFuture.complete(null);
+    }
+
+    /**
+     * Creates a new builder instance.
+     *
+     * @return the new builder.
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * A builder that helps construct a {@link SharedSnapshotPolicy} instance.
+     */
+    public static class Builder {
+        private Path sharedFile;
+        private int autoPollIntervalInSeconds = 60;
+        private int regionCheckIntervalInMillis = 1000;
+        private int capacityInBytes = 1024 * 1024;
+        private ConfigurationChangeListener listener;
+
+        /**
+         * Sets the file which is shared between the processes, every process polling the
+         * same configuration has to use the same file. A lock file is created next to it.
+         *
+         * @param sharedFile the path of the shared file.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given path is null.
+         */
+        public Builder sharedFile(Path sharedFile) {
+            if(sharedFile == null)
+                throw new IllegalArgumentException("sharedFile cannot be null");
+
+            this.sharedFile = sharedFile;
+            return this;
+        }
+
+        /**
+         * Sets at least how often the elected process should fetch the latest configuration.
+         *
+         * @param autoPollIntervalInSeconds the poll interval in seconds.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given value is less than 2 seconds.
+         */
+        public Builder autoPollIntervalInSeconds(int autoPollIntervalInSeconds) {
+            if(autoPollIntervalInSeconds < 2)
+                throw new IllegalArgumentException("autoPollRateInSeconds cannot be less than 2 seconds");
+
+            this.autoPollIntervalInSeconds = autoPollIntervalInSeconds;
+            return this;
+        }
+
+        /**
+         * Sets how often the processes should check the shared region for a new configuration.
+         *
+         * @param regionCheckIntervalInMillis the check interval in milliseconds.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given value is less than 10 milliseconds.
+         */
+        public Builder regionCheckIntervalInMillis(int regionCheckIntervalInMillis) {
+            if(regionCheckIntervalInMillis < 10)
+                throw new IllegalArgumentException("regionCheckIntervalInMillis cannot be less than 10 milliseconds");
+
+            this.regionCheckIntervalInMillis = regionCheckIntervalInMillis;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of the configuration and its entity tag which can be shared, the default is 1 MiB.
+         *
+         * @param capacityInBytes the capacity of the shared region in bytes.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given value is less than 1.
+         */
+        public Builder capacityInBytes(int capacityInBytes) {
+            if(capacityInBytes < 1)
+                throw new IllegalArgumentException("capacityInBytes cannot be less than 1");
+
+            this.capacityInBytes = capacityInBytes;
+            return this;
+        }
+
+        /**
+         * Sets a configuration changed listener.
+         *
+         * @param listener the listener.
+         * @return the builder.
+         * @throws IllegalArgumentException when the given listener is null.
+         */
+        public Builder configurationChangeListener(ConfigurationChangeListener listener) {
+            if(listener == null)
+                throw new IllegalArgumentException("listener cannot be null");
+
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Builds the configured {@link SharedSnapshotPolicy} instance.
+         *
+         * @param configFetcher the internal config fetcher.
+         * @param cache the internal cache.
+         * @return the configured {@link SharedSnapshotPolicy} instance
+         * @throws IllegalArgumentException when the shared file is not set.
+         * @throws IllegalStateException when the shared file can't be opened.
+         */
+        public SharedSnapshotPolicy build(ConfigFetcher configFetcher, ConfigCache cache) {
+            if(this.sharedFile == null)
+                throw new IllegalArgumentException("sharedFile cannot be null");
+
+            try {
+                return new SharedSnapshotPolicy(configFetcher, cache, this);
+            } catch (IOException e) {
+                throw new IllegalStateException("The shared file '" + this.sharedFile + "' can't be opened", e);
+            }
+        }
+    }
+}
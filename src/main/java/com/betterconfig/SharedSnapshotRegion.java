@@ -0,0 +1,148 @@
+package com.betterconfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A memory-mapped region shared by the processes of a host which holds the latest
+ * configuration and its entity tag. The region is protected by a sequence lock:
+ * the writer makes the sequence odd while it's writing and even again when it's done,
+ * readers retry when they see an odd or a changed sequence. A checksum guards the readers
+ * against the reordered stores of the writer.
+ */
+class SharedSnapshotRegion implements Closeable {
+    private static final int MAGIC = 0x42435352;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int ETAG_LENGTH_OFFSET = 16;
+    private static final int VALUE_LENGTH_OFFSET = 20;
+    private static final int CHECKSUM_OFFSET = 24;
+    private static final int DATA_OFFSET = 32;
+    private static final int MAX_READ_ATTEMPTS = 16;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    SharedSnapshotRegion(Path path, int capacityInBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(this.channel.size(), DATA_OFFSET + (long) capacityInBytes);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * Gets the current sequence of the region, it changes on every write.
+     *
+     * @return the sequence.
+     */
+    long sequence() {
+        return this.buffer.getLong(SEQUENCE_OFFSET);
+    }
+
+    /**
+     * Reads the latest consistent value of the region.
+     *
+     * @return the snapshot, or {@code null} when the region is empty or it's being written continuously.
+     */
+    Snapshot read() {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long sequence = this.sequence();
+            if((sequence & 1) == 1 || this.buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+                Thread.yield();
+                continue;
+            }
+
+            int eTagLength = this.buffer.getInt(ETAG_LENGTH_OFFSET);
+            int valueLength = this.buffer.getInt(VALUE_LENGTH_OFFSET);
+            long checksum = this.buffer.getLong(CHECKSUM_OFFSET);
+            if(valueLength < 0 || eTagLength < -1 || (long) DATA_OFFSET + Math.max(eTagLength, 0) + valueLength > this.buffer.capacity())
+                continue;
+
+            byte[] eTagBytes = eTagLength < 0 ? null : this.bytesAt(DATA_OFFSET, eTagLength);
+            byte[] valueBytes = this.bytesAt(DATA_OFFSET + Math.max(eTagLength, 0), valueLength);
+
+            if(sequence == this.sequence() && checksum == checksum(eTagBytes, valueBytes))
+                return new Snapshot(sequence,
+                        new String(valueBytes, StandardCharsets.UTF_8),
+                        eTagBytes == null ? null : new String(eTagBytes, StandardCharsets.UTF_8));
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes a new value into the region, only the elected writer process should call it.
+     *
+     * @param value the new value.
+     * @param eTag the entity tag of the new value.
+     * @throws IllegalArgumentException when the value doesn't fit into the region.
+     */
+    void write(String value, String eTag) {
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        byte[] eTagBytes = eTag == null ? null : eTag.getBytes(StandardCharsets.UTF_8);
+        int eTagLength = eTagBytes == null ? 0 : eTagBytes.length;
+        if((long) DATA_OFFSET + eTagLength + valueBytes.length > this.buffer.capacity())
+            throw new IllegalArgumentException("The configuration doesn't fit into the shared region of " + this.buffer.capacity() + " bytes");
+
+        long sequence = this.sequence();
+        if((sequence & 1) == 1)
+            sequence++;
+
+        this.buffer.putLong(SEQUENCE_OFFSET, sequence + 1);
+        this.buffer.putInt(ETAG_LENGTH_OFFSET, eTagBytes == null ? -1 : eTagBytes.length);
+        this.buffer.putInt(VALUE_LENGTH_OFFSET, valueBytes.length);
+        this.buffer.putLong(CHECKSUM_OFFSET, checksum(eTagBytes, valueBytes));
+        this.putBytes(DATA_OFFSET, eTagBytes);
+        this.putBytes(DATA_OFFSET + eTagLength, valueBytes);
+        this.buffer.putInt(MAGIC_OFFSET, MAGIC);
+        this.buffer.putLong(SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private byte[] bytesAt(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return bytes;
+    }
+
+    private void putBytes(int offset, byte[] bytes) {
+        if(bytes == null)
+            return;
+
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(offset);
+        view.put(bytes);
+    }
+
+    private static long checksum(byte[] eTagBytes, byte[] valueBytes) {
+        CRC32 crc = new CRC32();
+        if(eTagBytes != null)
+            crc.update(eTagBytes);
+
+        crc.update(valueBytes);
+        return crc.getValue();
+    }
+
+    static class Snapshot {
+        final long sequence;
+        final String value;
+        final String eTag;
+
+        private Snapshot(long sequence, String value, String eTag) {
+            this.sequence = sequence;
+            this.value = value;
+            this.eTag = eTag;
+        }
+    }
+}
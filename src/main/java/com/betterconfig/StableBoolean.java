@@ -0,0 +1,87 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+
+/**
+ * A handle of a boolean configuration value, e.g. a kill switch, which the JIT compiler can treat as a constant.
+ * The value is the target of a {@link MutableCallSite}; when a refreshed configuration changes the value,
+ * the call site is retargeted and the code compiled with the previous value is deoptimized.
+ * <p>The check is constant folded when the invoker is held in a {@code static final} field:</p>
+ * <pre>{@code
+ * static final MethodHandle KILL_SWITCH = client.getStableBoolean("killSwitch", false).invoker();
+ *
+ * if((boolean) KILL_SWITCH.invokeExact()) { ... }
+ * }</pre>
+ * <p>Changing the value is expensive, use it only for values which rarely change; for the rest use {@link LiveBoolean}.</p>
+ */
+public final class StableBoolean extends LiveHandle {
+    private final String key;
+    private final boolean defaultValue;
+    private final MutableCallSite callSite;
+    private final MethodHandle invoker;
+
+    StableBoolean(String key, boolean defaultValue) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+        this.callSite = new MutableCallSite(constant(defaultValue));
+        this.invoker = this.callSite.dynamicInvoker();
+    }
+
+    /**
+     * Gets the current value. It's only folded into a constant when it's called through
+     * the {@link #invoker()} held in a {@code static final} field, otherwise it's slower
+     * than the volatile read of a {@link LiveBoolean}.
+     *
+     * @return the value, or the default value when the key is missing or its value is not a boolean.
+     */
+    public boolean get() {
+        try {
+            return (boolean) this.invoker.invokeExact();
+        } catch (Throwable e) {
+            // the target is a constant method handle, it can't throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the method handle which returns the current value, its type is {@code ()boolean}.
+     *
+     * @return the invoker of the value.
+     */
+    public MethodHandle invoker() {
+        return this.invoker;
+    }
+
+    /**
+     * Gets the identifier of the configuration value.
+     *
+     * @return the key.
+     */
+    @Override
+    public String key() {
+        return this.key;
+    }
+
+    @Override
+    void update(JsonElement element) {
+        boolean value = ConfigSnapshot.valueOf(Boolean.class, element, this.defaultValue);
+        if(value == this.get())
+            return;
+
+        this.callSite.setTarget(constant(value));
+        MutableCallSite.syncAll(new MutableCallSite[] { this.callSite });
+    }
+
+    @Override
+    boolean isEquivalent(LiveHandle other) {
+        return this.defaultValue == ((StableBoolean) other).defaultValue;
+    }
+
+    private static MethodHandle constant(boolean value) {
+        return MethodHandles.constant(boolean.class, value);
+    }
+}
@@ -0,0 +1,105 @@
+package com.betterconfig;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rebuilds a freshly parsed json tree so it reuses every value of the previous tree which didn't change,
+ * and the equal strings (keys and values) of the new tree are represented by the same instances.
+ * This way only the changed values of a refreshed configuration are retained, the rest of the
+ * parsed tree becomes short-lived garbage.
+ */
+class StructuralSharing {
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<String, JsonPrimitive> stringValues = new HashMap<>();
+
+    private StructuralSharing() { }
+
+    static JsonElement share(JsonElement next, JsonElement previous) {
+        StructuralSharing sharing = new StructuralSharing();
+        if(previous != null)
+            sharing.collect(previous);
+
+        return sharing.shared(next, previous);
+    }
+
+    private void collect(JsonElement element) {
+        if(element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                this.strings.putIfAbsent(entry.getKey(), entry.getKey());
+                this.collect(entry.getValue());
+            }
+        } else if(element.isJsonArray()) {
+            for (JsonElement item : element.getAsJsonArray())
+                this.collect(item);
+        } else if(element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+            this.stringValues.putIfAbsent(element.getAsString(), element.getAsJsonPrimitive());
+        }
+    }
+
+    private JsonElement shared(JsonElement next, JsonElement previous) {
+        if(next == null || next.isJsonNull())
+            return JsonNull.INSTANCE;
+
+        if(next.isJsonObject())
+            return this.sharedObject(next.getAsJsonObject(), previous != null && previous.isJsonObject() ? previous.getAsJsonObject() : null);
+
+        if(next.isJsonArray())
+            return this.sharedArray(next.getAsJsonArray(), previous != null && previous.isJsonArray() ? previous.getAsJsonArray() : null);
+
+        JsonPrimitive primitive = next.getAsJsonPrimitive();
+        if(previous != null && previous.isJsonPrimitive() && isSameValue(primitive, previous.getAsJsonPrimitive()))
+            return previous;
+
+        if(!primitive.isString())
+            return primitive;
+
+        JsonPrimitive interned = this.stringValues.putIfAbsent(primitive.getAsString(), primitive);
+        return interned != null ? interned : primitive;
+    }
+
+    private JsonElement sharedObject(JsonObject next, JsonObject previous) {
+        JsonObject result = new JsonObject();
+        boolean unchanged = previous != null && previous.size() == next.size();
+        for (Map.Entry<String, JsonElement> entry : next.entrySet()) {
+            JsonElement previousValue = previous != null ? previous.get(entry.getKey()) : null;
+            JsonElement value = this.shared(entry.getValue(), previousValue);
+            unchanged &= value == previousValue;
+            result.add(this.intern(entry.getKey()), value);
+        }
+
+        return unchanged ? previous : result;
+    }
+
+    private JsonElement sharedArray(JsonArray next, JsonArray previous) {
+        JsonArray result = new JsonArray(next.size());
+        boolean unchanged = previous != null && previous.size() == next.size();
+        for (int i = 0; i < next.size(); i++) {
+            JsonElement previousValue = previous != null && i < previous.size() ? previous.get(i) : null;
+            JsonElement value = this.shared(next.get(i), previousValue);
+            unchanged &= value == previousValue;
+            result.add(value);
+        }
+
+        return unchanged ? previous : result;
+    }
+
+    private static boolean isSameValue(JsonPrimitive next, JsonPrimitive previous) {
+        // JsonPrimitive.equals() compares the numbers as doubles, which can't tell large or precise numbers apart
+        return next.isNumber() == previous.isNumber()
+                && next.isString() == previous.isString()
+                && next.isBoolean() == previous.isBoolean()
+                && next.getAsString().equals(previous.getAsString());
+    }
+
+    private String intern(String value) {
+        String interned = this.strings.putIfAbsent(value, value);
+        return interned != null ? interned : value;
+    }
+}
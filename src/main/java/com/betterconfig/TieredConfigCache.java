@@ -0,0 +1,166 @@
+package com.betterconfig;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A two-tier cache implementation, an in-process snapshot (L1) answers the reads and the wrapped
+ * cache (L2) is consulted only at startup, on writes, and when the entity tag stored in it differs
+ * from the snapshot's. The entity tag of the L2 cache is checked at most once per validation interval,
+ * meanwhile the reads are served from the snapshot.
+ * <p>The {@link BetterConfigClient} wraps every custom {@link ConfigCache} into this cache.</p>
+ */
+public class TieredConfigCache extends ConfigCache {
+    private final ConfigCache l2;
+    private final long validationIntervalInNanos;
+    private final AtomicBoolean validating;
+    private volatile Snapshot l1;
+
+    /**
+     * Constructs a new instance which validates its snapshot at most once per second.
+     *
+     * @param l2 the wrapped cache.
+     */
+    public TieredConfigCache(ConfigCache l2) {
+        this(l2, 1);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param l2 the wrapped cache.
+     * @param validationIntervalInSeconds how often the snapshot should be validated against the wrapped cache,
+     *                                    {@code 0} validates it on every read.
+     * @throws IllegalArgumentException when the wrapped cache is null or the interval is negative.
+     */
+    public TieredConfigCache(ConfigCache l2, int validationIntervalInSeconds) {
+        if(l2 == null)
+            throw new IllegalArgumentException("l2 cannot be null");
+
+        if(validationIntervalInSeconds < 0)
+            throw new IllegalArgumentException("validationIntervalInSeconds cannot be negative");
+
+        this.l2 = l2;
+        this.validationIntervalInNanos = TimeUnit.SECONDS.toNanos(validationIntervalInSeconds);
+        this.validating = new AtomicBoolean(false);
+    }
+
+    @Override
+    protected String read() {
+        Snapshot snapshot = this.l1;
+        if(this.isFresh(snapshot))
+            return snapshot.value;
+
+        // only one reader validates, the others are served from the snapshot meanwhile
+        boolean validator = this.validating.compareAndSet(false, true);
+        if(!validator && snapshot != null)
+            return snapshot.value;
+
+        try {
+            String eTag = this.l2.getETag();
+            if(snapshot != null && snapshot.isStampedWith(eTag))
+                return (this.l1 = snapshot.validated()).value;
+
+            return (this.l1 = new Snapshot(this.l2.get(), eTag)).value;
+        } finally {
+            if(validator)
+                this.validating.set(false);
+        }
+    }
+
+    @Override
+    protected String readETag() {
+        this.read();
+        return this.l1.eTag;
+    }
+
+    @Override
+    protected ConfigSnapshot readSnapshot(String value) throws Exception {
+        return this.l2.readSnapshot(value);
+    }
+
+    @Override
+    void cacheSnapshot(ConfigSnapshot snapshot) {
+        super.cacheSnapshot(snapshot);
+        this.l2.cacheSnapshot(snapshot);
+    }
+
+    @Override
+    protected CompletableFuture<String> readAsync() {
+        Snapshot snapshot = this.l1;
+        if(this.isFresh(snapshot))
+            return CompletableFuture.completedFuture(snapshot.value);
+
+        boolean validator = this.validating.compareAndSet(false, true);
+        if(!validator && snapshot != null)
+            return CompletableFuture.completedFuture(snapshot.value);
+
+        return this.l2.getETagAsync()
+                .thenCompose(eTag -> snapshot != null && snapshot.isStampedWith(eTag)
+                        ? CompletableFuture.completedFuture(this.l1 = snapshot.validated())
+                        : this.l2.getAsync().thenApply(value -> this.l1 = new Snapshot(value, eTag)))
+                .thenApply(validated -> validated.value)
+                .whenComplete((value, error) -> {
+                    if(validator)
+                        this.validating.set(false);
+                });
+    }
+
+    @Override
+    protected CompletableFuture<String> readETagAsync() {
+        return this.readAsync().thenApply(value -> this.l1.eTag);
+    }
+
+    @Override
+    protected void write(String value) {
+        this.write(value, null);
+    }
+
+    @Override
+    protected void write(String value, String eTag) {
+        this.l1 = new Snapshot(value, eTag);
+        this.l2.set(value, eTag);
+    }
+
+    @Override
+    protected CompletableFuture<Void> writeAsync(String value, String eTag) {
+        this.l1 = new Snapshot(value, eTag);
+        return this.l2.setAsync(value, eTag);
+    }
+
+    /**
+     * Gets the wrapped cache.
+     *
+     * @return the wrapped cache.
+     */
+    public ConfigCache l2() {
+        return this.l2;
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return snapshot != null && System.nanoTime() - snapshot.validatedAt < this.validationIntervalInNanos;
+    }
+
+    private static class Snapshot {
+        private final String value;
+        private final String eTag;
+        private final long validatedAt;
+
+        private Snapshot(String value, String eTag) {
+            this.value = value;
+            this.eTag = eTag;
+            this.validatedAt = System.nanoTime();
+        }
+
+        private boolean isStampedWith(String eTag) {
+            // a cache which doesn't store entity tags is stamped with null on every write
+            return Objects.equals(this.eTag, eTag);
+        }
+
+        private Snapshot validated() {
+            return new Snapshot(this.value, this.eTag);
+        }
+    }
+}
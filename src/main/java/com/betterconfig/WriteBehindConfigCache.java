@@ -0,0 +1,192 @@
+package com.betterconfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A cache implementation which publishes a new value immediately and stores it in the wrapped
+ * (slow) cache in the background. When multiple values are waiting to be stored only the latest
+ * one is written, the outcome of the writes is reported through the {@link ConfigCacheMetrics}.
+ * <p>Closing the cache stores the pending value and stops the background writer, the values
+ * set afterwards are stored synchronously.</p>
+ */
+public class WriteBehindConfigCache extends ConfigCache implements Closeable {
+    private final ConfigCache delegate;
+    private final ConfigCacheMetrics metrics;
+    private final ExecutorService writer;
+    private final AtomicReference<PendingWrite> pending;
+    private final AtomicBoolean draining;
+    private volatile PendingWrite inFlight;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param delegate the wrapped cache which stores the values.
+     * @throws IllegalArgumentException when the wrapped cache is null.
+     */
+    public WriteBehindConfigCache(ConfigCache delegate) {
+        if(delegate == null)
+            throw new IllegalArgumentException("delegate cannot be null");
+
+        this.delegate = delegate;
+        this.metrics = new ConfigCacheMetrics();
+        this.pending = new AtomicReference<>();
+        this.draining = new AtomicBoolean(false);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "betterconfig-cache-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the write statistics of the cache.
+     *
+     * @return the metrics.
+     */
+    public ConfigCacheMetrics metrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Waits until every pending value is stored in the wrapped cache.
+     *
+     * @throws InterruptedException when the current thread is interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        while (this.pending.get() != null || this.draining.get()) {
+            try {
+                this.writer.submit(() -> { }).get();
+            } catch (ExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected String read() throws Exception {
+        PendingWrite write = this.unpersisted();
+        return write != null ? write.value : this.delegate.read();
+    }
+
+    @Override
+    protected String readETag() throws Exception {
+        PendingWrite write = this.unpersisted();
+        return write != null ? write.eTag : this.delegate.readETag();
+    }
+
+    @Override
+    protected ConfigSnapshot readSnapshot(String value) throws Exception {
+        return this.unpersisted() != null ? null : this.delegate.readSnapshot(value);
+    }
+
+    @Override
+    void cacheSnapshot(ConfigSnapshot snapshot) {
+        super.cacheSnapshot(snapshot);
+        this.delegate.cacheSnapshot(snapshot);
+    }
+
+    @Override
+    protected CompletableFuture<String> readAsync() {
+        PendingWrite write = this.unpersisted();
+        return write != null ? CompletableFuture.completedFuture(write.value) : this.delegate.readAsync();
+    }
+
+    @Override
+    protected CompletableFuture<String> readETagAsync() {
+        PendingWrite write = this.unpersisted();
+        return write != null ? CompletableFuture.completedFuture(write.eTag) : this.delegate.readETagAsync();
+    }
+
+    @Override
+    protected void write(String value) {
+        this.write(value, null);
+    }
+
+    @Override
+    protected void write(String value, String eTag) {
+        this.metrics.writeRequested();
+        if(this.pending.getAndSet(new PendingWrite(value, eTag)) != null)
+            this.metrics.writeCoalesced();
+
+        this.scheduleDrain();
+    }
+
+    @Override
+    protected CompletableFuture<Void> writeAsync(String value, String eTag) {
+        this.write(value, eTag);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void scheduleDrain() {
+        if(!this.draining.compareAndSet(false, true))
+            return;
+
+        try {
+            this.writer.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // the cache is closed
+            this.drain();
+        }
+    }
+
+    private void drain() {
+        try {
+            PendingWrite write;
+            while ((write = this.pending.get()) != null) {
+                // readers look at the in-flight value once the pending one is taken
+                this.inFlight = write;
+                if(!this.pending.compareAndSet(write, null))
+                    continue;
+
+                try {
+                    this.delegate.writeAsync(write.value, write.eTag).get();
+                    this.metrics.writePersisted();
+                } catch (ExecutionException e) {
+                    this.metrics.writeFailed(e.getCause());
+                } catch (Exception e) {
+                    this.metrics.writeFailed(e);
+                } finally {
+                    this.inFlight = null;
+                }
+            }
+        } finally {
+            this.draining.set(false);
+            if(this.pending.get() != null)
+                this.scheduleDrain();
+        }
+    }
+
+    private PendingWrite unpersisted() {
+        PendingWrite write = this.pending.get();
+        return write != null ? write : this.inFlight;
+    }
+
+    private static class PendingWrite {
+        private final String value;
+        private final String eTag;
+
+        private PendingWrite(String value, String eTag) {
+            this.value = value;
+            this.eTag = eTag;
+        }
+    }
+}
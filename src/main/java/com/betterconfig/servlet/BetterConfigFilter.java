@@ -0,0 +1,109 @@
+package com.betterconfig.servlet;
+
+import com.betterconfig.ConfigSnapshot;
+import com.betterconfig.ConfigSnapshotScope;
+import com.betterconfig.ConfigurationProvider;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+
+/**
+ * A servlet filter which pins the current configuration snapshot for each request,
+ * the request handlers can read it with {@link ConfigSnapshotScope#current()}.
+ * <p>The snapshot is unpinned when the request leaves the filter, so it doesn't leak into
+ * the next request served by the same (pooled or virtual) thread.</p>
+ * <p>The snapshot is also stored in the {@value #SNAPSHOT_ATTRIBUTE} request attribute. An async request
+ * continues on another thread without the pinned snapshot, so it has to be read with {@link #snapshot(ServletRequest)}
+ * there; when the filter is mapped to async dispatches too, the dispatch pins the same snapshot again.</p>
+ * <p>When the filter is declared in {@code web.xml}, the client is looked up from the servlet context attribute
+ * named by the {@value #PROVIDER_ATTRIBUTE_PARAM} init parameter, by default {@value #DEFAULT_PROVIDER_ATTRIBUTE}.</p>
+ */
+public class BetterConfigFilter implements Filter {
+    /**
+     * The name of the request attribute which holds the snapshot of the request.
+     */
+    public static final String SNAPSHOT_ATTRIBUTE = "com.betterconfig.ConfigSnapshot";
+
+    /**
+     * The name of the init parameter which names the servlet context attribute holding the client.
+     */
+    public static final String PROVIDER_ATTRIBUTE_PARAM = "providerAttribute";
+
+    /**
+     * The name of the servlet context attribute which holds the client when the init parameter is not set.
+     */
+    public static final String DEFAULT_PROVIDER_ATTRIBUTE = "com.betterconfig.ConfigurationProvider";
+
+    private ConfigurationProvider provider;
+
+    /**
+     * Constructs a new filter which reads the client from a servlet context attribute when it's initialized.
+     */
+    public BetterConfigFilter() { }
+
+    /**
+     * Constructs a new filter which pins the snapshots of the given client.
+     *
+     * @param provider the client.
+     * @throws IllegalArgumentException when the client is null.
+     */
+    public BetterConfigFilter(ConfigurationProvider provider) {
+        if(provider == null)
+            throw new IllegalArgumentException("provider cannot be null");
+
+        this.provider = provider;
+    }
+
+    /**
+     * Gets the snapshot pinned for the given request by the filter.
+     *
+     * @param request the request.
+     * @return the snapshot, or {@code null} when the request didn't pass the filter.
+     */
+    public static ConfigSnapshot snapshot(ServletRequest request) {
+        Object snapshot = request.getAttribute(SNAPSHOT_ATTRIBUTE);
+        return snapshot instanceof ConfigSnapshot ? (ConfigSnapshot) snapshot : null;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        if(this.provider != null)
+            return;
+
+        String attribute = filterConfig.getInitParameter(PROVIDER_ATTRIBUTE_PARAM);
+        if(attribute == null || attribute.isEmpty())
+            attribute = DEFAULT_PROVIDER_ATTRIBUTE;
+
+        Object provider = filterConfig.getServletContext().getAttribute(attribute);
+        if(!(provider instanceof ConfigurationProvider))
+            throw new ServletException("The servlet context attribute '" + attribute + "' doesn't hold a ConfigurationProvider.");
+
+        this.provider = (ConfigurationProvider) provider;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        // an async dispatch of the request keeps the snapshot of the original dispatch
+        ConfigSnapshot snapshot = snapshot(request);
+        if(snapshot == null) {
+            snapshot = this.provider.getSnapshot();
+            request.setAttribute(SNAPSHOT_ATTRIBUTE, snapshot);
+        }
+
+        ConfigSnapshotScope scope = ConfigSnapshotScope.open(snapshot);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+    }
+
+    // the client is owned by the application, it's not closed with the filter
+    @Override
+    public void destroy() { }
+}
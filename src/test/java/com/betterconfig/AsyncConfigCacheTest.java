@@ -0,0 +1,177 @@
+package com.betterconfig;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncConfigCacheTest {
+    private MockWebServer server;
+    private RemoteStoreCache cache;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.server = new MockWebServer();
+        this.server.start();
+        this.cache = new RemoteStoreCache();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.cache.close();
+        this.server.shutdown();
+    }
+
+    @Test
+    public void manualPollingComposesRemoteCache() throws Exception {
+        ManualPollingPolicy policy = new ManualPollingPolicy(this.createFetcher(), this.cache);
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test"));
+        this.server.enqueue(new MockResponse().setResponseCode(304));
+
+        assertEquals("test", policy.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+        assertEquals("test", policy.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+        assertEquals("test", this.cache.store);
+
+        policy.close();
+    }
+
+    @Test
+    public void expiringCacheReadsRemoteCacheWithoutBlocking() throws Exception {
+        this.cache.store = "test";
+        ExpiringCachePolicy policy = ExpiringCachePolicy.newBuilder()
+                .cacheRefreshIntervalInSeconds(60)
+                .build(this.createFetcher(), this.cache);
+        this.server.enqueue(new MockResponse().setResponseCode(304));
+
+        //first call refreshes
+        assertEquals("test", policy.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+
+        //the read is only initiated, the remote store answers later
+        this.cache.latch = new CountDownLatch(1);
+        CompletableFuture<String> future = policy.getConfigurationJsonAsync();
+        assertFalse(future.isDone());
+
+        this.cache.latch.countDown();
+        assertEquals("test", future.get(5, TimeUnit.SECONDS));
+
+        policy.close();
+    }
+
+    @Test
+    public void storedETagAndNotModifiedReadRemoteCacheWithoutBlocking() throws Exception {
+        this.cache.store = "test";
+        this.cache.eTag = "fakeETag";
+        ManualPollingPolicy policy = new ManualPollingPolicy(this.createFetcher(), this.cache);
+        this.server.enqueue(new MockResponse().setResponseCode(304));
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test"));
+
+        //nothing is read while the policy is constructed
+        assertEquals(0, this.cache.reads.get());
+
+        assertEquals("test", policy.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+        assertEquals("fakeETag", this.server.takeRequest().getHeader("If-None-Match"));
+
+        //an unchanged fetch serves the stored value
+        assertEquals("test", policy.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+        assertEquals(0, this.cache.syncCalls.get());
+
+        policy.close();
+    }
+
+    @Test
+    public void failingRemoteCacheFallsBackToInMemoryValue() throws Exception {
+        ManualPollingPolicy policy = new ManualPollingPolicy(this.createFetcher(), this.cache);
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test"));
+        this.server.enqueue(new MockResponse().setResponseCode(500));
+
+        assertEquals("test", policy.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+
+        this.cache.failing = true;
+        assertEquals("test", policy.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+
+        policy.close();
+    }
+
+    private ConfigFetcher createFetcher() {
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), "");
+        fetcher.setUrl(this.server.url("/").toString());
+        return fetcher;
+    }
+
+    /**
+     * An in-process stand-in for a remote store which answers on its own thread.
+     */
+    private static class RemoteStoreCache extends ConfigCache {
+        private final ExecutorService remote = Executors.newSingleThreadExecutor();
+        private final AtomicInteger syncCalls = new AtomicInteger();
+        private final AtomicInteger reads = new AtomicInteger();
+        private volatile String store;
+        private volatile String eTag;
+        private volatile boolean failing;
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+
+        @Override
+        protected String read() {
+            this.syncCalls.incrementAndGet();
+            throw new UnsupportedOperationException("the synchronous read must not be used");
+        }
+
+        @Override
+        protected String readETag() {
+            this.syncCalls.incrementAndGet();
+            throw new UnsupportedOperationException("the synchronous read must not be used");
+        }
+
+        @Override
+        protected void write(String value) {
+            this.syncCalls.incrementAndGet();
+            throw new UnsupportedOperationException("the synchronous write must not be used");
+        }
+
+        @Override
+        protected CompletableFuture<String> readETagAsync() {
+            this.reads.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> this.eTag, this.remote);
+        }
+
+        @Override
+        protected CompletableFuture<String> readAsync() {
+            this.reads.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> {
+                this.await();
+                if(this.failing)
+                    throw new IllegalStateException("remote store unavailable");
+
+                return this.store;
+            }, this.remote);
+        }
+
+        @Override
+        protected CompletableFuture<Void> writeAsync(String value, String eTag) {
+            return CompletableFuture.runAsync(() -> {
+                this.store = value;
+                this.eTag = eTag;
+            }, this.remote);
+        }
+
+        private void await() {
+            try {
+                this.latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void close() {
+            this.remote.shutdownNow();
+        }
+    }
+}
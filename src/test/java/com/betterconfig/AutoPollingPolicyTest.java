@@ -20,12 +20,16 @@ public class AutoPollingPolicyTest {
 
         ConfigFetcher fetcher = mock(ConfigFetcher.class);
         ConfigCache cache = mock(ConfigCache.class);
+        when(cache.getETagAsync()).thenReturn(CompletableFuture.completedFuture(null));
 
         doThrow(new Exception()).when(cache).read();
         doThrow(new Exception()).when(cache).write(anyString());
 
-        when(cache.get()).thenCallRealMethod();
-        doCallRealMethod().when(cache).set(anyString());
+        when(cache.getAsync()).thenCallRealMethod();
+        when(cache.readAsync()).thenCallRealMethod();
+        when(cache.setAsync(anyString(), any())).thenCallRealMethod();
+        when(cache.writeAsync(anyString(), any())).thenCallRealMethod();
+        doCallRealMethod().when(cache).write(anyString(), any());
 
         when(fetcher.getConfigurationJsonStringAsync())
                 .thenReturn(CompletableFuture.completedFuture(new FetchResponse(FetchResponse.Status.FETCHED, result)));
@@ -43,8 +47,9 @@ public class AutoPollingPolicyTest {
 
         ConfigFetcher fetcher = mock(ConfigFetcher.class);
         ConfigCache cache = mock(ConfigCache.class);
+        when(cache.getETagAsync()).thenReturn(CompletableFuture.completedFuture(null));
 
-        when(cache.get()).thenReturn(result);
+        when(cache.getAsync()).thenReturn(CompletableFuture.completedFuture(result));
 
         when(fetcher.getConfigurationJsonStringAsync())
                 .thenReturn(CompletableFuture.completedFuture(new FetchResponse(FetchResponse.Status.FETCHED, result)));
@@ -56,6 +61,7 @@ public class AutoPollingPolicyTest {
         assertEquals("test", policy.getConfigurationJsonAsync().get());
 
         verify(cache, never()).write(result);
+        verify(cache, never()).setAsync(anyString(), any());
     }
 
     @Test
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -74,6 +75,16 @@ public class BetterConfigClientIntegrationTest {
         assertEquals(sample.value4, result.value4);
     }
 
+    @Test
+    public void getGenericConfiguration() {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"first\":{ \"value1\":5 }, \"second\":{ \"value2\":\"fakeValue\" } }"));
+
+        Map<String, Sample> result = this.client.getConfiguration(new ConfigType<Map<String, Sample>>() {}, null);
+        assertEquals(5, result.get("first").value1);
+        assertEquals("fakeValue", result.get("second").value2);
+        assertEquals(2.4, result.get("second").value3);
+    }
+
     @Test
     public void getConfigurationReturnsDefaultOnFail() {
         Sample sample = new Sample();
@@ -104,6 +115,84 @@ public class BetterConfigClientIntegrationTest {
         assertSame(def, result);
     }
 
+    @Test
+    public void getSnapshot() {
+        String result = "{ \"fakeKey\":\"fakeValue\", \"fakeInt\":42 }";
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(result));
+
+        ConfigSnapshot snapshot = this.client.getSnapshot();
+
+        assertEquals(result, snapshot.json());
+        assertEquals("fakeValue", snapshot.getValue(String.class, "fakeKey", null));
+        assertEquals(42, (int) snapshot.getValue(Integer.class, "fakeInt", 0));
+        assertSame(snapshot, this.client.getSnapshot());
+    }
+
+    @Test
+    public void getValues() throws Exception {
+        ConfigKey<String> fakeKey = ConfigKey.of(String.class, "fakeKey", null);
+        ConfigKey<Integer> fakeInt = ConfigKey.of(Integer.class, "fakeInt", 0);
+        ConfigKey<Boolean> fakeMissing = ConfigKey.of(Boolean.class, "fakeMissing", true);
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"fakeKey\":\"fakeValue\", \"fakeInt\":42 }"));
+
+        ConfigValues values = this.client.getValues(fakeKey, fakeInt, fakeMissing);
+
+        assertEquals("fakeValue", values.get(fakeKey));
+        assertEquals(42, (int) values.get(fakeInt));
+        assertTrue(values.get(fakeMissing));
+        assertSame(values.snapshot(), this.client.getValuesAsync(fakeKey).get().snapshot());
+        assertEquals(1, server.getRequestCount());
+        assertThrows(IllegalArgumentException.class, () -> this.client.getValues(fakeKey, null));
+        assertThrows(IllegalArgumentException.class, () -> this.client.getValuesAsync((ConfigKey<?>[]) null));
+    }
+
+    @Test
+    public void getValuesReturnsDefaultsOnFail() {
+        ConfigKey<String> fakeKey = ConfigKey.of(String.class, "fakeKey", "def");
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        assertEquals("def", this.client.getValues(fakeKey).get(fakeKey));
+    }
+
+    @Test
+    public void getValuesByPrefix() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"checkout.a\":true, \"checkout.b\":false, \"search.a\":true }"));
+
+        Map<String, Boolean> checkout = this.client.getValuesByPrefix(Boolean.class, "checkout.");
+
+        assertEquals(2, checkout.size());
+        assertTrue(checkout.get("checkout.a"));
+        assertFalse(checkout.get("checkout.b"));
+        assertEquals(1, this.client.getValuesByPrefixAsync(Boolean.class, "search.").get().size());
+        assertThrows(IllegalArgumentException.class, () -> this.client.getValuesByPrefix(Boolean.class, null));
+        assertThrows(IllegalArgumentException.class, () -> this.client.getValuesByPrefixAsync(Object.class, "search."));
+    }
+
+    @Test
+    public void getValueAt() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"checkout\":{ \"providers\":[{ \"url\":\"first\" }, { \"url\":\"second\", \"weights\":{ \"a\":1 } }] } }"));
+        ConfigPath url = ConfigPath.compile("checkout.providers[1].url");
+
+        assertEquals("second", this.client.getValueAt(String.class, url, null));
+        assertEquals("second", this.client.getValueAtAsync(String.class, url, null).get());
+        assertEquals(1, this.client.getValueAt(Map.class, ConfigPath.compile("checkout.providers[1].weights"), null).size());
+        assertEquals("def", this.client.getValueAt(String.class, ConfigPath.compile("checkout.providers[2].url"), "def"));
+        assertEquals(0, (int) this.client.getValueAt(Integer.class, url, 0));
+        assertThrows(IllegalArgumentException.class, () -> this.client.getValueAt(String.class, null, null));
+        assertThrows(IllegalArgumentException.class, () -> this.client.getValueAt(null, url, null));
+        assertThrows(IllegalArgumentException.class, () -> this.client.getValueAtAsync(null, url, null));
+    }
+
+    @Test
+    public void getSnapshotReturnsEmptyOnFail() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        ConfigSnapshot snapshot = this.client.getSnapshot();
+
+        assertTrue(snapshot.keys().isEmpty());
+        assertEquals("def", snapshot.getValue(String.class, "fakeKey", "def"));
+    }
+
     @Test
     public void getStringValue() {
         String sValue = "ááúúóüüőőööúúűű";
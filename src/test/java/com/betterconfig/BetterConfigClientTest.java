@@ -5,9 +5,13 @@ import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 public class BetterConfigClientTest {
 
@@ -39,6 +43,13 @@ public class BetterConfigClientTest {
         assertEquals("projectSecret is null or empty", builderException.getMessage());
     }
 
+    @Test
+    public void ensuresConnectionKeepAliveIsPositive() {
+        assertThrows(IllegalArgumentException.class, () -> BetterConfigClient
+                .newBuilder()
+                .connectionKeepAliveInSeconds(0));
+    }
+
     @Test
     public void ensuresMaxWaitTimeoutGreaterThanTwoSeconds() {
         assertThrows(IllegalArgumentException.class, () -> BetterConfigClient
@@ -206,4 +217,131 @@ public class BetterConfigClientTest {
         assertThrows(IllegalArgumentException.class, () -> client.getValueAsync(Boolean.class,"", false).get());
         assertThrows(IllegalArgumentException.class, () -> client.getValueAsync(BetterConfigClientIntegrationTest.Sample.class,"key", BetterConfigClientIntegrationTest.Sample.Empty).get());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void servesBootstrapResourceUntilFirstFetch() throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.start();
+
+        String result = "{ \"fakeKey\":\"fakeValue\" }";
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(result).setBodyDelay(2, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(result));
+
+        ConfigCache cache = new InMemoryConfigCache();
+        BetterConfigClient cl = BetterConfigClient.newBuilder()
+                .cache(cache)
+                .bootstrapResource("betterconfig/bootstrap.json")
+                .refreshPolicy((f, c) -> {
+                    f.setUrl(server.url("/").toString());
+                    return AutoPollingPolicy.newBuilder().build(f,c);
+                })
+                .build(SECRET);
+
+        assertEquals("bootstrapValue", cl.getValue(String.class, "fakeKey", null));
+        assertNull(cache.inMemoryValue());
+
+        cl.forceRefresh();
+        assertEquals("fakeValue", cl.getValue(String.class, "fakeKey", null));
+
+        server.close();
+        cl.close();
+    }
+
+    @Test
+    public void getSnapshotNotReadsCacheAfterFirstLoad() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"fakeKey\":\"fakeValue\" }"));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"fakeKey\":\"fakeValue2\" }"));
+
+        ConfigCache cache = spy(new InMemoryConfigCache());
+        BetterConfigClient cl = BetterConfigClient.newBuilder()
+                .cache(cache)
+                .refreshPolicy((f, c) -> {
+                    f.setUrl(server.url("/").toString());
+                    return AutoPollingPolicy.newBuilder().build(f,c);
+                })
+                .build(SECRET);
+
+        ConfigSnapshot snapshot = cl.getSnapshot();
+        clearInvocations(cache);
+
+        assertSame(snapshot, cl.getSnapshot());
+        assertSame(snapshot, cl.getSnapshotAsync().get());
+        verify(cache, never()).getAsync();
+        verify(cache, never()).get();
+
+        cl.forceRefresh();
+        assertEquals("fakeValue2", cl.getSnapshot().getValue(String.class, "fakeKey", null));
+
+        server.close();
+        cl.close();
+    }
+
+    @Test
+    public void getSnapshotServesBootstrapUntilFirstFetch() throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"fakeKey\":\"fakeValue\" }").setBodyDelay(2, TimeUnit.SECONDS));
+
+        BetterConfigClient cl = BetterConfigClient.newBuilder()
+                .bootstrapResource("betterconfig/bootstrap.json")
+                .refreshPolicy((f, c) -> {
+                    f.setUrl(server.url("/").toString());
+                    return AutoPollingPolicy.newBuilder().build(f,c);
+                })
+                .build(SECRET);
+
+        assertEquals("bootstrapValue", cl.getSnapshot().getValue(String.class, "fakeKey", null));
+
+        server.close();
+        cl.close();
+    }
+
+    @Test
+    public void servesBootstrapFile() throws IOException {
+        Path file = Files.createTempFile("betterconfig", ".json");
+        Files.write(file, "{ \"fakeKey\":\"fileValue\" }".getBytes(StandardCharsets.UTF_8));
+        MockWebServer server = new MockWebServer();
+        server.start();
+
+        BetterConfigClient cl = BetterConfigClient.newBuilder()
+                .bootstrapFile(file)
+                .refreshPolicy((f, c) -> {
+                    f.setUrl(server.url("/").toString());
+                    return new ManualPollingPolicy(f, c);
+                })
+                .build(SECRET);
+
+        assertEquals("fileValue", cl.getValue(String.class, "fakeKey", null));
+
+        server.close();
+        cl.close();
+        Files.delete(file);
+    }
+
+    @Test
+    public void ignoresMissingBootstrapResource() throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.start();
+
+        BetterConfigClient cl = BetterConfigClient.newBuilder()
+                .bootstrapResource("betterconfig/missing.json")
+                .refreshPolicy((f, c) -> {
+                    f.setUrl(server.url("/").toString());
+                    return new ManualPollingPolicy(f, c);
+                })
+                .build(SECRET);
+
+        assertNull(cl.getRefreshPolicy(ManualPollingPolicy.class).getLatestCachedValue());
+
+        server.close();
+        cl.close();
+    }
+
+    @Test
+    public void ensuresBootstrapSourceIsNotNull() {
+        assertThrows(IllegalArgumentException.class, () -> BetterConfigClient.newBuilder().bootstrapResource(null));
+        assertThrows(IllegalArgumentException.class, () -> BetterConfigClient.newBuilder().bootstrapFile(null));
+    }
+}
@@ -0,0 +1,137 @@
+package com.betterconfig;
+
+import okhttp3.Dns;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingDnsTest {
+    private static final String HOST = "cdn.betterconfig.com";
+
+    @Test
+    public void servesCachedAddresses() throws UnknownHostException {
+        CountingDns delegate = new CountingDns();
+        CachingDns dns = new CachingDns(delegate, 60);
+
+        List<InetAddress> first = dns.lookup(HOST);
+        List<InetAddress> second = dns.lookup(HOST);
+
+        assertSame(first, second);
+        assertEquals(1, delegate.lookups.get());
+
+        dns.close();
+    }
+
+    @Test
+    public void refreshesInBackgroundBeforeExpiry() throws Exception {
+        CountingDns delegate = new CountingDns();
+        CachingDns dns = new CachingDns(delegate, 400L);
+
+        List<InetAddress> first = dns.lookup(HOST);
+
+        //wait for the refresh window
+        Thread.sleep(320);
+
+        //the cached value is returned while the refresh runs
+        assertSame(first, dns.lookup(HOST));
+
+        //wait for the background refresh
+        Thread.sleep(100);
+
+        assertEquals(2, delegate.lookups.get());
+        assertNotSame(first, dns.lookup(HOST));
+
+        dns.close();
+    }
+
+    @Test
+    public void servesStaleAddressesOnFailure() throws Exception {
+        CountingDns delegate = new CountingDns();
+        CachingDns dns = new CachingDns(delegate, 100L);
+
+        List<InetAddress> first = dns.lookup(HOST);
+        delegate.failing.set(true);
+
+        //wait for expiry
+        Thread.sleep(150);
+
+        assertSame(first, dns.lookup(HOST));
+
+        dns.close();
+    }
+
+    @Test
+    public void failingResolverNotDelaysLookups() throws Exception {
+        CountingDns delegate = new CountingDns();
+        CachingDns dns = new CachingDns(delegate, 400L);
+
+        List<InetAddress> first = dns.lookup(HOST);
+        delegate.failing.set(true);
+        delegate.delayInMillis = 500;
+
+        //wait for expiry
+        Thread.sleep(450);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++)
+            assertSame(first, dns.lookup(HOST));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(250));
+
+        //wait for the failed refresh, the next one is retried only after the backoff
+        Thread.sleep(600);
+        assertSame(first, dns.lookup(HOST));
+        assertEquals(1, delegate.attempts.get() - delegate.lookups.get());
+
+        dns.close();
+    }
+
+    @Test
+    public void throwsWhenNothingCached() {
+        CountingDns delegate = new CountingDns();
+        delegate.failing.set(true);
+        CachingDns dns = new CachingDns(delegate, 60);
+
+        assertThrows(UnknownHostException.class, () -> dns.lookup(HOST));
+
+        dns.close();
+    }
+
+    @Test
+    public void ensuresTtlIsValid() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingDns(Dns.SYSTEM, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CachingDns(null, 60));
+        assertThrows(IllegalArgumentException.class, () -> BetterConfigClient.newBuilder().dnsCacheTtlInSeconds(-1));
+    }
+
+    private static class CountingDns implements Dns {
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private volatile long delayInMillis;
+
+        @Override
+        public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+            this.attempts.incrementAndGet();
+            try {
+                Thread.sleep(this.delayInMillis);
+            } catch (InterruptedException e) {
+                throw new UnknownHostException(hostname);
+            }
+
+            if(this.failing.get())
+                throw new UnknownHostException(hostname);
+
+            this.lookups.incrementAndGet();
+            return Collections.singletonList(InetAddress.getByAddress(hostname, new byte[] { 127, 0, 0, 1 }));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CborDecoderTest {
+
+    @Test
+    public void decodesIntegers() throws IOException {
+        assertEquals(0, decode(0x00).getAsLong());
+        assertEquals(500, decode(0x19, 0x01, 0xF4).getAsLong());
+        assertEquals(-500, decode(0x39, 0x01, 0xF3).getAsLong());
+        assertEquals(new BigInteger("18446744073709551615"), decode(0x1B, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF).getAsBigInteger());
+        assertEquals(new BigInteger("18446744073709551616"), decode(0xC2, 0x49, 0x01, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00).getAsBigInteger());
+    }
+
+    @Test
+    public void decodesFloats() throws IOException {
+        assertEquals(1.5, decode(0xF9, 0x3E, 0x00).getAsDouble());
+        assertEquals(-4.0, decode(0xF9, 0xC4, 0x00).getAsDouble());
+        assertEquals(100000.0, decode(0xFA, 0x47, 0xC3, 0x50, 0x00).getAsDouble());
+        assertEquals(1.1, decode(0xFB, 0x3F, 0xF1, 0x99, 0x99, 0x99, 0x99, 0x99, 0x9A).getAsDouble());
+    }
+
+    @Test
+    public void decodesSimpleValues() throws IOException {
+        assertFalse(decode(0xF4).getAsBoolean());
+        assertTrue(decode(0xF5).getAsBoolean());
+        assertTrue(decode(0xF6).isJsonNull());
+    }
+
+    @Test
+    public void decodesStringsAndContainers() throws IOException {
+        assertEquals("ü", decode(0x62, 0xC3, 0xBC).getAsString());
+        assertEquals("streaming", decode(0x7F, 0x65, 's', 't', 'r', 'e', 'a', 0x64, 'm', 'i', 'n', 'g', 0xFF).getAsString());
+        assertEquals("[1,[2,3],[4,5]]", decode(0x83, 0x01, 0x82, 0x02, 0x03, 0x9F, 0x04, 0x05, 0xFF).toString());
+        assertEquals("{\"a\":1,\"b\":[2,3]}", decode(0xBF, 0x61, 'a', 0x01, 0x61, 'b', 0x9F, 0x02, 0x03, 0xFF, 0xFF).toString());
+        assertEquals("{\"1\":2}", decode(0xA1, 0x01, 0x02).toString());
+    }
+
+    @Test
+    public void computesVersionWhileDecoding() throws Exception {
+        byte[] document = bytes(0xBF, 0x61, 'a', 0x01, 0x61, 'b', 0x9F, 0xF9, 0x3E, 0x00, 0x63, 'x', 'y', 'z', 0xF5, 0xF6, 0xFF, 0xFF);
+        ConfigSnapshot snapshot = CborDecoder.decodeSnapshot(document);
+
+        assertEquals(ConfigSnapshot.hash(CborDecoder.decode(document)), snapshot.version());
+        assertEquals(ConfigSnapshot.fromJson("{ \"b\":[1.5, \"xyz\", true, null], \"a\":1 }").version(), snapshot.version());
+    }
+
+    @Test
+    public void rejectsMalformedDocuments() {
+        assertThrows(IOException.class, () -> decode(0x82, 0x01));
+        assertThrows(IOException.class, () -> decode(0x01, 0x02));
+        assertThrows(IOException.class, () -> decode(0x9F, 0x01));
+        assertThrows(IOException.class, () -> decode(0x7B, 0x7F, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF));
+        assertThrows(IOException.class, () -> decode(0xA1, 0x80, 0x01));
+    }
+
+    private static JsonElement decode(int... data) throws IOException {
+        return CborDecoder.decode(bytes(data));
+    }
+
+    private static byte[] bytes(int... data) {
+        byte[] bytes = new byte[data.length];
+        for (int i = 0; i < data.length; i++)
+            bytes[i] = (byte) data[i];
+
+        return bytes;
+    }
+}
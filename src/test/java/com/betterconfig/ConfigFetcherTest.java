@@ -1,13 +1,18 @@
 package com.betterconfig;
 
 import okhttp3.OkHttpClient;
+import okio.Buffer;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -55,6 +60,49 @@ public class ConfigFetcherTest {
         assertEquals("fakeETag", this.server.takeRequest().getHeader("If-None-Match"));
     }
 
+    @Test
+    public void getConfigurationVersionsBody() throws InterruptedException, ExecutionException, ParsingFailedException {
+        String result = "{ \"fakeKey\":\"ááúúóüüőő\" }";
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody(result));
+
+        FetchResponse response = this.fetcher.getConfigurationJsonStringAsync().get();
+
+        assertEquals(ConfigSnapshot.fromJson(result).version(), response.version());
+        assertEquals(ConfigSnapshot.fromJson("{\"fakeKey\":\"ááúúóüüőő\"}").version(), response.snapshot().version());
+    }
+
+    @Test
+    public void getConfigurationJsonStringReturnsETag() throws InterruptedException, ExecutionException {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test").setHeader("ETag", "fakeETag"));
+
+        assertEquals("fakeETag", this.fetcher.getConfigurationJsonStringAsync().get().eTag());
+    }
+
+    @Test
+    public void getConfigurationJsonStringSeededETag() throws InterruptedException, ExecutionException {
+        this.server.enqueue(new MockResponse().setResponseCode(304));
+
+        this.fetcher.setETag("persistedETag");
+
+        assertTrue(this.fetcher.getConfigurationJsonStringAsync().get().isNotModified());
+        assertEquals("persistedETag", this.server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void preConnect() throws InterruptedException, ExecutionException {
+        this.server.enqueue(new MockResponse().setResponseCode(200));
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test"));
+
+        this.fetcher.preConnectAsync().get();
+        assertEquals("test", this.fetcher.getConfigurationJsonStringAsync().get().config());
+
+        assertEquals("HEAD", this.server.takeRequest().getMethod());
+
+        RecordedRequest fetchRequest = this.server.takeRequest();
+        assertEquals("GET", fetchRequest.getMethod());
+        assertEquals(1, fetchRequest.getSequenceNumber());
+    }
+
     @Test
     public void getConfigurationException() throws IOException, ExecutionException, InterruptedException {
 
@@ -68,4 +116,144 @@ public class ConfigFetcherTest {
 
         fetch.close();
     }
+
+    @Test
+    public void getConfigurationNegotiatesCbor() throws InterruptedException, ExecutionException, ParsingFailedException {
+        // { "fakeKey": "fakeValue", "fakeInt": 42 }
+        byte[] cbor = new byte[] { (byte) 0xA2,
+                0x67, 'f', 'a', 'k', 'e', 'K', 'e', 'y', 0x69, 'f', 'a', 'k', 'e', 'V', 'a', 'l', 'u', 'e',
+                0x67, 'f', 'a', 'k', 'e', 'I', 'n', 't', 0x18, 42 };
+        this.server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/cbor")
+                .setBody(new Buffer().write(cbor)));
+
+        FetchResponse response = this.fetcher.getConfigurationJsonStringAsync().get();
+
+        assertTrue(response.isFetched());
+        assertEquals("{\"fakeKey\":\"fakeValue\",\"fakeInt\":42}", response.config());
+        assertEquals(42, response.snapshot().get("fakeInt").getAsInt());
+        assertEquals(ConfigSnapshot.fromJson("{ \"fakeInt\":42.0, \"fakeKey\":\"fakeValue\" }").version(), response.version());
+        assertEquals("application/cbor, application/json;q=0.9", this.server.takeRequest().getHeader("Accept"));
+    }
+
+    @Test
+    public void getConfigurationFallsBackToJson() throws ExecutionException, InterruptedException {
+        String result = "{ \"fakeKey\":\"fakeValue\" }";
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("Content-Type", "application/json").setBody(result));
+
+        FetchResponse response = this.fetcher.getConfigurationJsonStringAsync().get();
+
+        assertTrue(response.isFetched());
+        assertEquals(result, response.config());
+        assertEquals("fakeValue", response.snapshot().get("fakeKey").getAsString());
+    }
+
+    @Test
+    public void getConfigurationFailsOnMalformedCbor() throws ExecutionException, InterruptedException {
+        this.server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/cbor")
+                .setBody(new Buffer().write(new byte[] { (byte) 0xA2, 0x67, 'f' })));
+
+        assertTrue(this.fetcher.getConfigurationJsonStringAsync().get().isFailed());
+    }
+
+    @Test
+    public void getConfigurationAppliesDelta() throws InterruptedException, ExecutionException, ParsingFailedException {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("ETag", "v1")
+                .setBody("{ \"fakeKey\":\"fakeValue\", \"fakeRemoved\":true, \"fakeObject\":{ \"a\":1, \"b\":2 } }"));
+        this.server.enqueue(new MockResponse().setResponseCode(226).setHeader("IM", "merge-patch").setHeader("ETag", "v2")
+                .setBody("{ \"fakeRemoved\":null, \"fakeObject\":{ \"b\":3 }, \"fakeAdded\":\"new\" }"));
+
+        FetchResponse first = this.fetcher.getConfigurationJsonStringAsync().get();
+        FetchResponse second = this.fetcher.getConfigurationJsonStringAsync().get();
+
+        assertTrue(second.isFetched());
+        assertEquals("v2", second.eTag());
+        assertEquals("{\"fakeKey\":\"fakeValue\",\"fakeObject\":{\"a\":1,\"b\":3},\"fakeAdded\":\"new\"}", second.config());
+        assertSame(first.snapshot().get("fakeKey"), second.snapshot().get("fakeKey"));
+        assertEquals(ConfigSnapshot.fromJson("{ \"fakeAdded\":\"new\", \"fakeKey\":\"fakeValue\", \"fakeObject\":{ \"b\":3, \"a\":1 } }").version(), second.version());
+
+        assertNull(this.server.takeRequest().getHeader("A-IM"));
+        RecordedRequest deltaRequest = this.server.takeRequest();
+        assertEquals("merge-patch", deltaRequest.getHeader("A-IM"));
+        assertEquals("v1", deltaRequest.getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void getConfigurationFallsBackToFullFetchWhenDeltaUnusable() throws InterruptedException, ExecutionException {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("ETag", "v1").setBody("{ \"fakeKey\":\"fakeValue\" }"));
+        this.server.enqueue(new MockResponse().setResponseCode(226).setHeader("IM", "vcdiff").setBody("unknown"));
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("ETag", "v2").setBody("{ \"fakeKey\":\"fakeValue2\" }"));
+
+        this.fetcher.getConfigurationJsonStringAsync().get();
+        FetchResponse response = this.fetcher.getConfigurationJsonStringAsync().get();
+
+        assertTrue(response.isFetched());
+        assertEquals("{ \"fakeKey\":\"fakeValue2\" }", response.config());
+        assertEquals("v2", response.eTag());
+
+        this.server.takeRequest();
+        assertEquals("merge-patch", this.server.takeRequest().getHeader("A-IM"));
+        assertNull(this.server.takeRequest().getHeader("A-IM"));
+    }
+
+    @Test
+    public void getConfigurationDecompressesGzip() throws IOException, InterruptedException, ExecutionException {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < 100; i++)
+            builder.append(i == 0 ? "" : ",").append("\"fakeKey").append(i).append("\":\"fakeValue\"");
+        String result = builder.append("}").toString();
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(result.getBytes(StandardCharsets.UTF_8));
+        }
+
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("Content-Encoding", "gzip")
+                .setBody(new Buffer().write(compressed.toByteArray())));
+
+        FetchResponse response = this.fetcher.getConfigurationJsonStringAsync().get();
+
+        assertTrue(response.isFetched());
+        assertEquals(result, response.config());
+        assertEquals("gzip, br", this.server.takeRequest().getHeader("Accept-Encoding"));
+        assertEquals(1, this.fetcher.metrics().fetches());
+        assertEquals(compressed.size(), this.fetcher.metrics().lastCompressedBytes());
+        assertEquals(result.length(), this.fetcher.metrics().lastUncompressedBytes());
+    }
+
+    @Test
+    public void getConfigurationDecompressesBrotli() throws InterruptedException, ExecutionException {
+        byte[] result = "{ \"fakeKey\":\"fakeValue\" }".getBytes(StandardCharsets.UTF_8);
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("Content-Encoding", "br")
+                .setBody(new Buffer().write(brotliUncompressed(result))));
+
+        FetchResponse response = this.fetcher.getConfigurationJsonStringAsync().get();
+
+        assertTrue(response.isFetched());
+        assertEquals("{ \"fakeKey\":\"fakeValue\" }", response.config());
+        assertEquals(result.length + 4, this.fetcher.metrics().compressedBytes());
+        assertEquals(result.length, this.fetcher.metrics().uncompressedBytes());
+    }
+
+    @Test
+    public void getConfigurationFailsOnUnknownEncoding() throws InterruptedException, ExecutionException {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("Content-Encoding", "zstd").setBody("test"));
+
+        assertTrue(this.fetcher.getConfigurationJsonStringAsync().get().isFailed());
+    }
+
+    // a brotli stream with one uncompressed meta-block followed by an empty last meta-block
+    private static byte[] brotliUncompressed(byte[] data) {
+        int header = ((data.length - 1) << 4) | (1 << 20);
+        byte[] stream = new byte[data.length + 4];
+        stream[0] = (byte) header;
+        stream[1] = (byte) (header >>> 8);
+        stream[2] = (byte) (header >>> 16);
+        System.arraycopy(data, 0, stream, 3, data.length);
+        stream[stream.length - 1] = 0x03;
+        return stream;
+    }
 }
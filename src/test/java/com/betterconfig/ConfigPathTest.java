@@ -0,0 +1,47 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigPathTest {
+    private static final JsonElement ROOT = new JsonParser().parse("{ \"a\":{ \"b\":[{ \"c\":1 }, { \"c\":2 }, { \"c\":3 }] }, " +
+            "\"checkout.limit\":5, \"matrix\":[[1, 2], [3, 4]], \"fakeString\":\"fakeValue\" }");
+
+    @Test
+    public void resolvesNestedValues() {
+        assertEquals(3, ConfigPath.compile("a.b[2].c").resolve(ROOT).getAsInt());
+        assertEquals(4, ConfigPath.compile("matrix[1][1]").resolve(ROOT).getAsInt());
+        assertEquals(5, ConfigPath.compile("[\"checkout.limit\"]").resolve(ROOT).getAsInt());
+        assertEquals("fakeValue", ConfigPath.compile("fakeString").resolve(ROOT).getAsString());
+        assertTrue(ConfigPath.compile("a.b").resolve(ROOT).isJsonArray());
+        assertEquals(4, ConfigPath.compile("a.b[2].c").depth());
+        assertEquals("a.b[2].c", ConfigPath.compile("a.b[2].c").toString());
+    }
+
+    @Test
+    public void missingValuesResolveToNull() {
+        assertNull(ConfigPath.compile("a.b[3].c").resolve(ROOT));
+        assertNull(ConfigPath.compile("a.x.c").resolve(ROOT));
+        assertNull(ConfigPath.compile("a[0]").resolve(ROOT));
+        assertNull(ConfigPath.compile("fakeString.length").resolve(ROOT));
+        assertNull(ConfigPath.compile("checkout.limit").resolve(ROOT));
+    }
+
+    @Test
+    public void rejectsInvalidPaths() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile(null));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile(""));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile(".a"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile("a."));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile("a..b"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile("a["));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile("a[]"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile("a[-1]"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile("a[x]"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile("a[0]b"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigPath.compile("a[\"b]"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.betterconfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigSchemaTest {
+
+    @Test
+    public void readsSlotsByIndex() throws ParsingFailedException {
+        ConfigSchema<ConfigSlots> schema = new ConfigSchema<>(slots -> slots, "fakeBool", "fakeInt", "fakeDouble", "fakeString", "fakeMissing");
+
+        ConfigSlots slots = schema.get(ConfigSnapshot.fromJson("{ \"fakeBool\":true, \"fakeInt\":42, \"fakeDouble\":3.14, \"fakeString\":\"fakeValue\", \"fakeMissing\":null }"));
+
+        assertEquals(5, slots.size());
+        assertTrue(slots.getBoolean(0, false));
+        assertEquals(42, slots.getInt(1, 0));
+        assertEquals(3.14, slots.getDouble(2, 0));
+        assertEquals("fakeValue", slots.getString(3, null));
+        assertEquals("def", slots.getString(4, "def"));
+        assertEquals(7, slots.getInt(3, 7));
+    }
+
+    @Test
+    public void createsAccessorOncePerSnapshot() throws ParsingFailedException {
+        AtomicInteger created = new AtomicInteger();
+        ConfigSchema<Integer> schema = new ConfigSchema<>(slots -> created.incrementAndGet(), "fakeKey");
+        ConfigSnapshot first = ConfigSnapshot.fromJson("{ \"fakeKey\":1 }");
+        ConfigSnapshot second = ConfigSnapshot.fromJson("{ \"fakeKey\":2 }");
+
+        assertEquals(1, (int) schema.get(first));
+        assertEquals(1, (int) schema.get(first));
+        assertEquals(2, (int) schema.get(second));
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void ensuresValidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ConfigSchema<>(null, "fakeKey"));
+        assertThrows(IllegalArgumentException.class, () -> new ConfigSchema<>(slots -> slots, "fakeKey", null));
+        assertThrows(IllegalArgumentException.class, () -> new ConfigSchema<>(slots -> slots, "fakeKey").get(null));
+    }
+}
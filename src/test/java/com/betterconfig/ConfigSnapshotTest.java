@@ -0,0 +1,176 @@
+package com.betterconfig;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigSnapshotTest {
+    private static final String CONFIG = "{ \"fakeString\":\"ááúúóüüőő\", \"fakeInt\":-42, \"fakeDouble\":3.14, \"fakeBig\":12345678901234567890, " +
+            "\"fakeBool\":true, \"fakeNull\":null, \"fakeArray\":[1, \"two\", { \"fakeInt\":3 }], \"fakeObject\":{ \"fakeString\":\"nested\" } }";
+
+    private final ConfigurationParser parser = new ConfigurationParser();
+
+    @Test
+    public void readsValues() throws ParsingFailedException {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson(CONFIG);
+
+        assertEquals(CONFIG, snapshot.json());
+        assertEquals(new HashSet<>(Arrays.asList("fakeString", "fakeInt", "fakeDouble", "fakeBig", "fakeBool", "fakeNull", "fakeArray", "fakeObject")), snapshot.keys());
+        assertEquals("ááúúóüüőő", parser.parseSnapshotValue(String.class, snapshot, "fakeString"));
+        assertEquals(-42, (int) parser.parseSnapshotValue(Integer.class, snapshot, "fakeInt"));
+        assertEquals(3.14, (double) parser.parseSnapshotValue(Double.class, snapshot, "fakeDouble"));
+        assertTrue(parser.parseSnapshotValue(Boolean.class, snapshot, "fakeBool"));
+        assertThrows(ParsingFailedException.class, () -> parser.parseSnapshotValue(String.class, snapshot, "missing"));
+    }
+
+    @Test
+    public void getValueReturnsDefault() throws ParsingFailedException {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson(CONFIG);
+
+        assertEquals("ááúúóüüőő", snapshot.getValue(String.class, "fakeString", "def"));
+        assertEquals(-42, (int) snapshot.getValue(Integer.class, "fakeInt", 0));
+        assertEquals("def", snapshot.getValue(String.class, "missing", "def"));
+        assertEquals("def", snapshot.getValue(String.class, "fakeNull", "def"));
+        assertEquals(0, (int) snapshot.getValue(Integer.class, "fakeObject", 0));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValue(String.class, null, "def"));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValue(Long.class, "fakeInt", 0L));
+    }
+
+    @Test
+    public void getValueAt() throws ParsingFailedException {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson(CONFIG);
+
+        assertEquals(3, (int) snapshot.getValueAt(Integer.class, ConfigPath.compile("fakeArray[2].fakeInt"), 0));
+        assertEquals("nested", snapshot.getValueAt(String.class, ConfigPath.compile("fakeObject.fakeString"), null));
+        assertEquals(-1, (int) snapshot.getValueAt(Integer.class, ConfigPath.compile("fakeArray[3]"), -1));
+        assertEquals(-1, (int) snapshot.getValueAt(Integer.class, ConfigPath.compile("fakeArray[1]"), -1));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAt(Integer.class, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAt(Long.class, ConfigPath.compile("fakeInt"), 0L));
+    }
+
+    @Test
+    public void getValuesByPrefix() throws ParsingFailedException {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson("{ \"search.b\":2, \"checkout.limit\":5, \"search.a\":1, \"search\":0, " +
+                "\"search.c\":\"notInt\", \"searchx\":9, \"search.d\":null, \"sea\":8 }");
+
+        Map<String, Integer> search = snapshot.getValuesByPrefix(Integer.class, "search.");
+
+        assertEquals(Arrays.asList("search.a", "search.b"), new ArrayList<>(search.keySet()));
+        assertEquals(1, (int) search.get("search.a"));
+        assertEquals(2, (int) search.get("search.b"));
+        assertEquals(Arrays.asList("search", "search.a", "search.b", "searchx"), new ArrayList<>(snapshot.getValuesByPrefix(Integer.class, "search").keySet()));
+        assertEquals(6, snapshot.getValuesByPrefix(Integer.class, "").size());
+        assertTrue(snapshot.getValuesByPrefix(Integer.class, "missing.").isEmpty());
+        assertTrue(snapshot.getValuesByPrefix(Integer.class, "z").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> search.put("search.e", 5));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValuesByPrefix(Integer.class, null));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValuesByPrefix(Long.class, "search."));
+    }
+
+    @Test
+    public void binaryRoundTrip() throws Exception {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson(CONFIG);
+
+        for (boolean compress : new boolean[] { false, true }) {
+            ConfigSnapshot loaded = ConfigSnapshot.fromBinary(snapshot.toBinary(compress));
+
+            assertEquals(snapshot.root().toString(), loaded.json());
+            assertEquals(snapshot.root(), loaded.root());
+            assertEquals(snapshot.version(), loaded.version());
+            assertEquals("12345678901234567890", loaded.get("fakeBig").getAsString());
+            assertEquals("3.14", loaded.get("fakeDouble").getAsString());
+        }
+    }
+
+    @Test
+    public void binaryHoldsOnlyValues() throws Exception {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson(CONFIG);
+        byte[] binary = snapshot.toBinary(false);
+
+        assertTrue(binary.length < CONFIG.getBytes(StandardCharsets.UTF_8).length);
+        assertFalse(new String(binary, StandardCharsets.UTF_8).contains(CONFIG));
+    }
+
+    @Test
+    public void versionIsContentHash() throws Exception {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson(CONFIG);
+
+        assertEquals(snapshot.version(), ConfigSnapshot.fromJson(new String(CONFIG.toCharArray())).version());
+        assertEquals(snapshot.version(), ConfigSnapshot.fromBinary(snapshot.toBinary(true)).version());
+        assertEquals(snapshot.version(), ConfigSnapshot.fromJson(CONFIG).sharingWith(snapshot).version());
+        assertNotEquals(snapshot.version(), ConfigSnapshot.fromJson(CONFIG.replace("-42", "-43")).version());
+    }
+
+    @Test
+    public void versionIgnoresFormatting() throws Exception {
+        long version = ConfigSnapshot.fromJson("{ \"a\":1, \"b\":{ \"c\":[1.5, \"x\", true, null], \"d\":100 } }").version();
+
+        assertEquals(version, ConfigSnapshot.fromJson("{\"b\":{\"d\":1e2,\"c\":[1.50,\"x\",true,null]},\"a\":1.0}").version());
+        assertEquals(version, ConfigSnapshot.fromTree(new JsonParser().parse("{ \"b\":{ \"d\":100.0, \"c\":[1.5, \"x\", true, null] }, \"a\":1 }")).version());
+        assertNotEquals(version, ConfigSnapshot.fromJson("{ \"a\":\"1\", \"b\":{ \"c\":[1.5, \"x\", true, null], \"d\":100 } }").version());
+        assertNotEquals(version, ConfigSnapshot.fromJson("{ \"a\":1, \"b\":{ \"c\":[\"x\", 1.5, true, null], \"d\":100 } }").version());
+        assertNotEquals(version, ConfigSnapshot.fromJson("{ \"a\":1, \"b\":{ \"c\":[1.5, \"x\", true, null], \"d\":100, \"e\":null } }").version());
+        assertNotEquals(ConfigSnapshot.fromJson("{ \"a\":1, \"b\":2 }").version(), ConfigSnapshot.fromJson("{ \"a\":2, \"b\":1 }").version());
+        assertEquals(ConfigSnapshot.fromJson("{ \"a\":0 }").version(), ConfigSnapshot.fromJson("{ \"a\":-0.0 }").version());
+        assertEquals(ConfigSnapshot.hash("{ test"), ConfigSnapshot.versionOf("{ test"));
+        assertEquals(ConfigSnapshot.fromJson("test").version(), ConfigSnapshot.versionOf("test"));
+    }
+
+    @Test
+    public void computesVersionWhileParsing() throws Exception {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson(CONFIG);
+
+        assertEquals(ConfigSnapshot.hash(snapshot.root()), snapshot.version());
+        assertEquals(ConfigSnapshot.hash(snapshot.root()), ConfigSnapshot.fromBinary(snapshot.toBinary(false)).version());
+        assertEquals(ConfigSnapshot.fromJson("{ \"a\":2 }").version(), ConfigSnapshot.fromJson("{ \"a\":1, \"a\":2 }").version());
+        assertEquals(new JsonParser().parse(CONFIG), snapshot.root());
+    }
+
+    @Test
+    public void cacheMemoFollowsTheCachedValue() throws Exception {
+        ConfigCache cache = new InMemoryConfigCache();
+        ConfigSnapshot snapshot = cache.snapshot(CONFIG);
+        String copy = new String(CONFIG.toCharArray());
+
+        assertSame(snapshot, cache.snapshot(CONFIG));
+        assertSame(snapshot, cache.snapshot(copy));
+        assertSame(snapshot, cache.snapshot(copy));
+        assertNotSame(snapshot, cache.snapshot(CONFIG.replace("-42", "-43")));
+    }
+
+    @Test
+    public void compressesLargeConfig() throws ParsingFailedException {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < 1000; i++)
+            builder.append(i == 0 ? "" : ",").append("\"fakeKey").append(i).append("\":\"fakeValue\"");
+
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson(builder.append("}").toString());
+
+        assertTrue(snapshot.toBinary(true).length < snapshot.toBinary(false).length / 4);
+    }
+
+    @Test
+    public void rejectsCorruptedBinary() throws ParsingFailedException {
+        byte[] binary = ConfigSnapshot.fromJson(CONFIG).toBinary(false);
+        binary[20] ^= 1;
+
+        assertThrows(IOException.class, () -> ConfigSnapshot.fromBinary(binary));
+        assertThrows(IOException.class, () -> ConfigSnapshot.fromBinary(Arrays.copyOf(binary, 12)));
+        assertThrows(IOException.class, () -> ConfigSnapshot.fromBinary(new byte[] { 1, 2, 3 }));
+    }
+
+    @Test
+    public void throwsWhenInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigSnapshot.fromJson(null));
+        assertThrows(IllegalArgumentException.class, () -> ConfigSnapshot.fromBinary(null));
+        assertThrows(ParsingFailedException.class, () -> ConfigSnapshot.fromJson("{ \"fakeKey\": "));
+    }
+}
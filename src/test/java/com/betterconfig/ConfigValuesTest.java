@@ -0,0 +1,45 @@
+package com.betterconfig;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigValuesTest {
+    private static final ConfigKey<String> FAKE_STRING = ConfigKey.of(String.class, "fakeString", "def");
+    private static final ConfigKey<Integer> FAKE_INT = ConfigKey.of(Integer.class, "fakeInt", 0);
+    private static final ConfigKey<Boolean> FAKE_BOOL = ConfigKey.of(Boolean.class, "fakeBool", false);
+    private static final ConfigKey<Double> FAKE_MISSING = ConfigKey.of(Double.class, "fakeMissing", 1.5);
+
+    @Test
+    public void readsAllKeysFromSnapshot() throws ParsingFailedException {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson("{ \"fakeString\":\"fakeValue\", \"fakeInt\":42, \"fakeBool\":\"notBool\" }");
+
+        ConfigValues values = new ConfigValues(snapshot, new ConfigKey<?>[] { FAKE_STRING, FAKE_INT, FAKE_BOOL, FAKE_MISSING });
+
+        assertSame(snapshot, values.snapshot());
+        assertEquals("fakeValue", values.get(FAKE_STRING));
+        assertEquals(42, (int) values.get(FAKE_INT));
+        assertFalse(values.get(FAKE_BOOL));
+        assertEquals(1.5, (double) values.get(FAKE_MISSING));
+    }
+
+    @Test
+    public void readsUnrequestedKeyFromSameSnapshot() throws ParsingFailedException {
+        ConfigValues values = new ConfigValues(ConfigSnapshot.fromJson("{ \"fakeInt\":7 }"), new ConfigKey<?>[0]);
+
+        assertEquals(7, (int) values.get(FAKE_INT));
+        assertEquals("def", values.get(FAKE_STRING));
+        assertThrows(IllegalArgumentException.class, () -> values.get(null));
+    }
+
+    @Test
+    public void keyValidation() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigKey.of(String.class, null, "def"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigKey.of(String.class, "", "def"));
+        assertThrows(IllegalArgumentException.class, () -> ConfigKey.of(Long.class, "fakeLong", 0L));
+
+        assertEquals("fakeInt", FAKE_INT.key());
+        assertEquals(Integer.class, FAKE_INT.type());
+        assertEquals(0, (int) FAKE_INT.defaultValue());
+    }
+}
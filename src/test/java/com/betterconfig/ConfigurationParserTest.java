@@ -2,8 +2,15 @@ package com.betterconfig;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ConfigurationParserTest {
     private final static ConfigurationParser parser = new ConfigurationParser();
@@ -29,4 +36,54 @@ public class ConfigurationParserTest {
         ParsingFailedException exp = assertThrows(ParsingFailedException.class, () -> parser.parseValue(String.class, badJson, "test"));
         assertEquals(badJson, exp.getJson());
     }
+
+    @Test
+    public void parseValueAt() throws ParsingFailedException {
+        String config = "{ \"a\":{ \"b\":[{ \"c\":1 }, { \"c\":\"two\", \"d\":{ \"fakeList\":[\"x\", \"y\"] } }] } }";
+        ConfigPath path = ConfigPath.compile("a.b[1].c");
+
+        assertEquals("two", parser.parseValueAt(String.class, config, path));
+        assertEquals("two", parser.parseSnapshotValueAt(String.class, ConfigSnapshot.fromJson(config), path));
+        assertEquals(1, (int) parser.parseValueAt(Integer.class, config, ConfigPath.compile("a.b[0].c")));
+        assertEquals(Arrays.asList("x", "y"), parser.parseValueAt(Sample.class, config, ConfigPath.compile("a.b[1].d")).fakeList);
+        assertThrows(ParsingFailedException.class, () -> parser.parseValueAt(Integer.class, config, path));
+        assertThrows(ParsingFailedException.class, () -> parser.parseValueAt(String.class, config, ConfigPath.compile("a.b[2].c")));
+        assertThrows(IllegalArgumentException.class, () -> parser.parseValueAt(String.class, config, null));
+        assertThrows(IllegalArgumentException.class, () -> parser.parseValueAt(String.class, "", path));
+        assertThrows(IllegalArgumentException.class, () -> parser.parseSnapshotValueAt(String.class, null, path));
+    }
+
+    static class Sample {
+        List<String> fakeList;
+        int fakeInt = 1;
+        String fakeString = "def";
+    }
+
+    @Test
+    public void parsesGenericType() throws ParsingFailedException {
+        Map<String, Sample> samples = parser.parse(new ConfigType<Map<String, Sample>>() {}, "{ \"first\":{ \"fakeInt\":2 }, \"second\":{ \"fakeString\":\"fakeValue\" } }");
+
+        assertEquals(2, samples.get("first").fakeInt);
+        assertEquals("fakeValue", samples.get("second").fakeString);
+
+        List<Sample> list = parser.parseSnapshot(new ConfigType<List<Sample>>() {}, ConfigSnapshot.fromJson("[{ \"fakeInt\":3 }]"));
+        assertEquals(3, list.get(0).fakeInt);
+
+        assertThrows(ParsingFailedException.class, () -> parser.parse(new ConfigType<List<Sample>>() {}, "{ \"fakeInt\":3 }"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse((ConfigType<Sample>) null, "{}"));
+    }
+
+    @Test
+    public void parsesCollectionSubclasses() throws ParsingFailedException {
+        Flags flags = parser.parse(Flags.class, "{ \"a\":true }");
+        Names names = parser.parse(Names.class, "[\"a\", \"b\"]");
+
+        assertEquals(1, flags.size());
+        assertTrue(flags.get("a"));
+        assertEquals(Arrays.asList("a", "b"), names);
+    }
+
+    static class Flags extends HashMap<String, Boolean> { }
+
+    static class Names extends ArrayList<String> { }
 }
@@ -97,8 +97,9 @@ public class ExpiringCachePolicySyncTest {
 
         ConfigFetcher fetcher = mock(ConfigFetcher.class);
         ConfigCache cache = mock(ConfigCache.class);
+        when(cache.getETagAsync()).thenReturn(CompletableFuture.completedFuture(null));
 
-        when(cache.get()).thenReturn(result);
+        when(cache.getAsync()).thenReturn(CompletableFuture.completedFuture(result));
 
         when(fetcher.getConfigurationJsonStringAsync())
                 .thenReturn(CompletableFuture.completedFuture(new FetchResponse(FetchResponse.Status.FETCHED, result)));
@@ -109,5 +110,6 @@ public class ExpiringCachePolicySyncTest {
         assertEquals("test", policy.getConfigurationJsonAsync().get());
 
         verify(cache, never()).write(result);
+        verify(cache, never()).setAsync(anyString(), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.betterconfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileConfigFetcherTest {
+
+    @Test
+    public void readsOnlyModifiedFile() throws IOException, ExecutionException, InterruptedException {
+        Path directory = Files.createTempDirectory("betterconfig");
+        Path file = directory.resolve("config.json");
+        write(file, "test");
+
+        FileConfigFetcher fetcher = new FileConfigFetcher(file);
+
+        FetchResponse fResult = fetcher.getConfigurationJsonStringAsync().get();
+        assertTrue(fResult.isFetched());
+        assertEquals("test", fResult.config());
+
+        FetchResponse sResult = fetcher.getConfigurationJsonStringAsync().get();
+        assertTrue(sResult.isNotModified());
+
+        write(file, "test2");
+
+        FetchResponse tResult = fetcher.getConfigurationJsonStringAsync().get();
+        assertTrue(tResult.isFetched());
+        assertEquals("test2", tResult.config());
+
+        fetcher.close();
+        delete(directory);
+    }
+
+    @Test
+    public void failsWhenFileIsMissing() throws IOException, ExecutionException, InterruptedException {
+        Path directory = Files.createTempDirectory("betterconfig");
+        FileConfigFetcher fetcher = new FileConfigFetcher(directory.resolve("config.json"));
+
+        assertTrue(fetcher.getConfigurationJsonStringAsync().get().isFailed());
+
+        fetcher.close();
+        delete(directory);
+    }
+
+    @Test
+    public void propagatesChangesWithoutPolling() throws Exception {
+        Path directory = Files.createTempDirectory("betterconfig");
+        Path file = directory.resolve("config.json");
+        write(file, "test");
+
+        CompletableFuture<String> changed = new CompletableFuture<>();
+        AutoPollingPolicy policy = AutoPollingPolicy.newBuilder()
+                .autoPollIntervalInSeconds(60)
+                .configurationChangeListener((parser, config) -> {
+                    if("test2".equals(config))
+                        changed.complete(config);
+                })
+                .build(new FileConfigFetcher(file), new InMemoryConfigCache());
+
+        assertEquals("test", policy.getConfigurationJsonAsync().get());
+
+        write(file, "test2");
+
+        assertEquals("test2", changed.get(10, TimeUnit.SECONDS));
+        assertEquals("test2", policy.getConfigurationJsonAsync().get());
+
+        policy.close();
+        delete(directory);
+    }
+
+    @Test
+    public void throwsWhenFileNull() {
+        assertThrows(IllegalArgumentException.class, () -> new FileConfigFetcher(null));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void delete(Path directory) throws IOException {
+        Files.deleteIfExists(directory.resolve("config.json"));
+        Files.delete(directory);
+    }
+}
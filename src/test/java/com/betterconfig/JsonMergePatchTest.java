@@ -0,0 +1,29 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonMergePatchTest {
+    private final JsonParser parser = new JsonParser();
+
+    @Test
+    public void mergesNestedObjects() {
+        JsonElement target = this.parser.parse("{ \"a\":\"b\", \"c\":{ \"d\":\"e\", \"f\":\"g\" }, \"h\":[1] }");
+
+        JsonElement result = JsonMergePatch.apply(target, this.parser.parse("{ \"a\":\"z\", \"c\":{ \"f\":null } }"));
+
+        assertEquals(this.parser.parse("{ \"a\":\"z\", \"c\":{ \"d\":\"e\" }, \"h\":[1] }"), result);
+        assertSame(target.getAsJsonObject().get("h"), result.getAsJsonObject().get("h"));
+        assertEquals(this.parser.parse("{ \"a\":\"b\", \"c\":{ \"d\":\"e\", \"f\":\"g\" }, \"h\":[1] }"), target);
+    }
+
+    @Test
+    public void replacesNonObjectValues() {
+        assertEquals(this.parser.parse("[\"c\"]"), JsonMergePatch.apply(this.parser.parse("{ \"a\":\"b\" }"), this.parser.parse("[\"c\"]")));
+        assertEquals(this.parser.parse("{ \"a\":{ \"b\":\"c\" } }"), JsonMergePatch.apply(this.parser.parse("{ \"a\":[1] }"), this.parser.parse("{ \"a\":{ \"b\":\"c\" } }")));
+        assertEquals(this.parser.parse("{ \"a\":\"b\" }"), JsonMergePatch.apply(this.parser.parse("[1]"), this.parser.parse("{ \"a\":\"b\" }")));
+    }
+}
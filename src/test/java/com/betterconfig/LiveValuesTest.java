@@ -0,0 +1,117 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveValuesTest {
+
+    @Test
+    public void updatesOnlyChangedKeys() throws Exception {
+        LiveValues values = new LiveValues();
+        CountingHandle changing = values.register(new CountingHandle("fakeChanging"), () -> null);
+        CountingHandle unchanged = values.register(new CountingHandle("fakeUnchanged"), () -> null);
+
+        ConfigSnapshot first = ConfigSnapshot.fromJson("{ \"fakeChanging\":1, \"fakeUnchanged\":{ \"fakeKey\":\"fakeValue\" } }");
+        values.publish(() -> first);
+        values.publish(() -> ConfigSnapshot.fromJson("{ \"fakeChanging\":2, \"fakeUnchanged\":{ \"fakeKey\":\"fakeValue\" } }").sharingWith(first));
+
+        assertEquals(2, changing.updates);
+        assertEquals(1, unchanged.updates);
+    }
+
+    @Test
+    public void registeredHandleStartsFromLatestSnapshot() throws Exception {
+        LiveValues values = new LiveValues();
+        values.register(new CountingHandle("fakeOther"), () -> null);
+        values.publish(() -> ConfigSnapshot.fromJson("{ \"fakeKey\":true }"));
+
+        LiveBoolean handle = values.register(new LiveBoolean("fakeKey", false), () -> ConfigSnapshot.fromJson("{ \"fakeKey\":false }"));
+
+        assertTrue(handle.get());
+    }
+
+    @Test
+    public void registersEquivalentHandlesOnce() throws Exception {
+        LiveValues values = new LiveValues();
+        LiveBoolean flag = values.register(new LiveBoolean("fakeKey", false), () -> null);
+        LiveValue<Integer> number = values.register(new LiveValue<>(Integer.class, "fakeKey", 0), () -> null);
+        StableBoolean stable = values.register(new StableBoolean("fakeKey", false), () -> null);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(flag, values.register(new LiveBoolean("fakeKey", false), () -> null));
+            assertSame(number, values.register(new LiveValue<>(Integer.class, "fakeKey", 0), () -> null));
+            assertSame(stable, values.register(new StableBoolean("fakeKey", false), () -> null));
+        }
+
+        assertNotSame(flag, values.register(new LiveBoolean("fakeKey", true), () -> null));
+        assertNotSame(flag, values.register(new LiveBoolean("fakeOther", false), () -> null));
+        assertNotSame(number, values.register(new LiveValue<>(Integer.class, "fakeKey", 1), () -> null));
+        assertNotSame(number, values.register(new LiveValue<>(String.class, "fakeKey", null), () -> null));
+    }
+
+    @Test
+    public void clientUpdatesLiveValues() throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.start();
+
+        BetterConfigClient cl = BetterConfigClient.newBuilder()
+                .refreshPolicy((f, c) -> {
+                    f.setUrl(server.url("/").toString());
+                    return new ManualPollingPolicy(f, c);
+                })
+                .build("TEST_SECRET");
+
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"fakeFlag\":false, \"fakeInt\":1 }"));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"fakeFlag\":true, \"fakeInt\":\"fakeText\" }"));
+
+        LiveBoolean flag = cl.getLiveBoolean("fakeFlag", false);
+        LiveValue<Integer> number = cl.getLiveValue(Integer.class, "fakeInt", 0);
+        LiveValue<String> missing = cl.getLiveValue(String.class, "fakeMissing", "def");
+
+        assertFalse(flag.get());
+        assertEquals(1, (int) number.get());
+
+        cl.forceRefresh();
+
+        assertTrue(flag.get());
+        assertEquals(0, (int) number.get());
+        assertEquals("def", missing.get());
+        assertSame(flag, cl.getLiveBoolean("fakeFlag", false));
+        assertSame(number, cl.getLiveValue(Integer.class, "fakeInt", 0));
+        assertThrows(IllegalArgumentException.class, () -> cl.getLiveValue(Long.class, "fakeInt", 0L));
+        assertThrows(IllegalArgumentException.class, () -> cl.getLiveBoolean(null, false));
+
+        server.close();
+        cl.close();
+    }
+
+    private static class CountingHandle extends LiveHandle {
+        private final String key;
+        private int updates;
+
+        private CountingHandle(String key) {
+            this.key = key;
+        }
+
+        @Override
+        String key() {
+            return this.key;
+        }
+
+        @Override
+        void update(JsonElement element) {
+            this.updates++;
+        }
+
+        @Override
+        boolean isEquivalent(LiveHandle other) {
+            return false;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.betterconfig;
 import okhttp3.OkHttpClient;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -76,14 +77,43 @@ public class ManualPollingPolicyTest {
         assertEquals("test", this.policy.getConfigurationJsonAsync().get());
     }
 
+    @Test
+    public void getNotModifiedWithPersistedETag() throws InterruptedException, ExecutionException {
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), "");
+        fetcher.setUrl(this.server.url("/").toString());
+        ConfigCache cache = new InMemoryConfigCache();
+        cache.set("test", "fakeETag");
+        ManualPollingPolicy lPolicy = new ManualPollingPolicy(fetcher, cache);
+
+        this.server.enqueue(new MockResponse().setResponseCode(304));
+
+        //the persisted value is served without downloading it again
+        assertEquals("test", lPolicy.getConfigurationJsonAsync().get());
+        assertEquals("fakeETag", this.server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void getStoresETag() throws InterruptedException, ExecutionException {
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), "");
+        fetcher.setUrl(this.server.url("/").toString());
+        ConfigCache cache = new InMemoryConfigCache();
+        ManualPollingPolicy lPolicy = new ManualPollingPolicy(fetcher, cache);
+
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test").setHeader("ETag", "fakeETag"));
+
+        assertEquals("test", lPolicy.getConfigurationJsonAsync().get());
+        assertEquals("fakeETag", cache.getETag());
+    }
+
     @Test
     public void getFetchedSameResponseNotUpdatesCache() throws Exception {
         String result = "test";
 
         ConfigFetcher fetcher = mock(ConfigFetcher.class);
         ConfigCache cache = mock(ConfigCache.class);
+        when(cache.getETagAsync()).thenReturn(CompletableFuture.completedFuture(null));
 
-        when(cache.get()).thenReturn(result);
+        when(cache.getAsync()).thenReturn(CompletableFuture.completedFuture(result));
 
         when(fetcher.getConfigurationJsonStringAsync())
                 .thenReturn(CompletableFuture.completedFuture(new FetchResponse(FetchResponse.Status.FETCHED, result)));
@@ -93,5 +123,46 @@ public class ManualPollingPolicyTest {
         assertEquals("test", policy.getConfigurationJsonAsync().get());
 
         verify(cache, never()).write(result);
+        verify(cache, never()).setAsync(anyString(), any());
+    }
+
+    @Test
+    public void getComparesVersionsWithoutReadingCache() throws Exception {
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), "");
+        fetcher.setUrl(this.server.url("/").toString());
+        ConfigCache cache = spy(new InMemoryConfigCache());
+        ManualPollingPolicy lPolicy = new ManualPollingPolicy(fetcher, cache);
+
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test"));
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test"));
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test2"));
+
+        assertEquals("test", lPolicy.getConfigurationJsonAsync().get());
+        assertEquals("test", lPolicy.getConfigurationJsonAsync().get());
+        assertEquals("test2", lPolicy.getConfigurationJsonAsync().get());
+
+        // only the first comparison needs the cached value, the rest compares the versions
+        verify(cache, times(1)).getAsync();
+        verify(cache, times(2)).setAsync(anyString(), any());
+    }
+
+    @Test
+    public void getSameConfigInAnotherFormatNotUpdatesCache() throws Exception {
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), "");
+        fetcher.setUrl(this.server.url("/").toString());
+        ConfigCache cache = spy(new InMemoryConfigCache());
+        ManualPollingPolicy lPolicy = new ManualPollingPolicy(fetcher, cache);
+
+        // { "fakeKey": "fakeValue", "fakeInt": 42 }
+        byte[] cbor = new byte[] { (byte) 0xA2,
+                0x67, 'f', 'a', 'k', 'e', 'K', 'e', 'y', 0x69, 'f', 'a', 'k', 'e', 'V', 'a', 'l', 'u', 'e',
+                0x67, 'f', 'a', 'k', 'e', 'I', 'n', 't', 0x18, 42 };
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("{ \"fakeInt\": 42, \"fakeKey\": \"fakeValue\" }"));
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("Content-Type", "application/cbor").setBody(new Buffer().write(cbor)));
+
+        assertEquals("{ \"fakeInt\": 42, \"fakeKey\": \"fakeValue\" }", lPolicy.getConfigurationJsonAsync().get());
+        assertEquals("{ \"fakeInt\": 42, \"fakeKey\": \"fakeValue\" }", lPolicy.getConfigurationJsonAsync().get());
+
+        verify(cache, times(1)).setAsync(anyString(), any());
     }
-}
\ No newline at end of file
+}
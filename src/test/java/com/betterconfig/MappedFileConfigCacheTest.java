@@ -0,0 +1,150 @@
+package com.betterconfig;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedFileConfigCacheTest {
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("betterconfig");
+        this.file = this.directory.resolve("config.cache");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.forEach(path -> path.toFile().delete());
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void readsNullWhenFileMissing() {
+        MappedFileConfigCache cache = new MappedFileConfigCache(this.file);
+
+        assertNull(cache.get());
+        assertNull(cache.getETag());
+    }
+
+    @Test
+    public void writesAndReads() {
+        MappedFileConfigCache cache = new MappedFileConfigCache(this.file);
+        cache.set("{ \"fakeKey\":\"ááúúóüüőő\" }", "fakeETag");
+
+        assertEquals("{ \"fakeKey\":\"ááúúóüüőő\" }", cache.get());
+        assertEquals("fakeETag", cache.getETag());
+    }
+
+    @Test
+    public void survivesRestart() {
+        new MappedFileConfigCache(this.file).set("test", "fakeETag");
+
+        MappedFileConfigCache restarted = new MappedFileConfigCache(this.file);
+
+        assertEquals("test", restarted.get());
+        assertEquals("fakeETag", restarted.getETag());
+        assertNull(restarted.inMemoryValue());
+    }
+
+    @Test
+    public void readsValueReplacedByOtherInstance() {
+        MappedFileConfigCache cache = new MappedFileConfigCache(this.file);
+        MappedFileConfigCache other = new MappedFileConfigCache(this.file);
+        cache.set("test", null);
+
+        assertEquals("test", other.get());
+
+        cache.set("test2", "fakeETag");
+
+        assertEquals("test2", other.get());
+        assertEquals("fakeETag", other.getETag());
+    }
+
+    @Test
+    public void leavesNoTemporaryFiles() throws IOException {
+        MappedFileConfigCache cache = new MappedFileConfigCache(this.file);
+        cache.set("test", null);
+        cache.set("test2", null);
+
+        try (Stream<Path> files = Files.list(this.directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void corruptedFileFallsBackToInMemoryValue() throws IOException {
+        MappedFileConfigCache cache = new MappedFileConfigCache(this.file);
+        cache.set("test", null);
+
+        Files.write(this.file, new byte[] { 1, 2, 3 });
+
+        assertThrows(IOException.class, cache::read);
+        assertEquals("test", cache.get());
+    }
+
+    @Test
+    public void clientServesPersistedValueUntilFirstFetch() throws IOException {
+        new MappedFileConfigCache(this.file).set("test", "fakeETag");
+
+        MockWebServer server = new MockWebServer();
+        server.start();
+        server.enqueue(new MockResponse().setResponseCode(304).setBodyDelay(5, TimeUnit.SECONDS));
+
+        BetterConfigClient cl = BetterConfigClient.newBuilder()
+                .cache(new MappedFileConfigCache(this.file))
+                .refreshPolicy((f, c) -> {
+                    f.setUrl(server.url("/").toString());
+                    return new ManualPollingPolicy(f, c);
+                })
+                .maxWaitTimeForSyncCallsInSeconds(2)
+                .build("secret");
+
+        assertEquals("test", cl.getConfigurationJsonString());
+
+        server.shutdown();
+        cl.close();
+    }
+
+    @Test
+    public void loadsStoredSnapshotAfterRestart() throws ParsingFailedException {
+        String config = "{ \"fakeKey\":\"fakeValue\", \"fakeNumber\":42 }";
+        new MappedFileConfigCache(this.file, true).set(config, "fakeETag");
+
+        MappedFileConfigCache restarted = new MappedFileConfigCache(this.file);
+        ConfigSnapshot snapshot = restarted.snapshot(restarted.get());
+
+        assertEquals("{\"fakeKey\":\"fakeValue\",\"fakeNumber\":42}", snapshot.json());
+        assertEquals(ConfigSnapshot.fromJson(config).version(), snapshot.version());
+        assertSame(snapshot, restarted.snapshot(restarted.get()));
+        assertEquals(42, (int) new ConfigurationParser().parseSnapshotValue(Integer.class, snapshot, "fakeNumber"));
+    }
+
+    @Test
+    public void storesHandedOverSnapshot() throws Exception {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson("{ \"fakeKey\":\"fakeValue\" }");
+        MappedFileConfigCache cache = new MappedFileConfigCache(this.file);
+        cache.cacheSnapshot(snapshot);
+        cache.set(snapshot.json(), "fakeETag");
+
+        assertSame(snapshot, cache.readSnapshot(snapshot.json()));
+    }
+
+    @Test
+    public void throwsWhenPathNull() {
+        assertThrows(IllegalArgumentException.class, () -> new MappedFileConfigCache(null));
+    }
+}
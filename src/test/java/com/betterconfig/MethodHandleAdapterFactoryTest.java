@@ -0,0 +1,116 @@
+package com.betterconfig;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodHandleAdapterFactoryTest {
+    private final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new MethodHandleAdapterFactory()).create();
+
+    @Test
+    public void bindsFields() {
+        Sample sample = this.gson.fromJson("{ \"fakeInt\":42, \"fakeString\":\"fakeValue\", \"fake-renamed\":true, " +
+                "\"fakeList\":[\"a\", \"b\"], \"fakeNested\":{ \"fakeInt\":7 }, \"fakeBase\":3.5, \"fakeUnknown\":{ \"a\":[1] } }", Sample.class);
+
+        assertEquals(42, sample.fakeInt);
+        assertEquals("fakeValue", sample.fakeString);
+        assertTrue(sample.renamed);
+        assertEquals(Arrays.asList("a", "b"), sample.fakeList);
+        assertEquals(7, sample.fakeNested.fakeInt);
+        assertEquals(3.5, sample.fakeBase);
+    }
+
+    @Test
+    public void keepsInitializedValues() {
+        Sample sample = this.gson.fromJson("{ \"fakeInt\":null, \"fake-alternate\":true }", Sample.class);
+
+        assertEquals(1, sample.fakeInt);
+        assertEquals("def", sample.fakeString);
+        assertTrue(sample.renamed);
+        assertEquals(0, sample.fakeTransient);
+    }
+
+    @Test
+    public void bindsPrivateConstructor() {
+        PrivateSample sample = this.gson.fromJson("{ \"fakeKey\":\"fakeValue\" }", PrivateSample.class);
+
+        assertEquals("fakeValue", sample.fakeKey);
+        assertTrue(sample.constructed);
+    }
+
+    @Test
+    public void usesMethodHandleAdapters() {
+        assertEquals(MethodHandleAdapterFactory.class, this.gson.getAdapter(Sample.class).getClass().getEnclosingClass());
+        assertEquals(MethodHandleAdapterFactory.class, this.gson.getAdapter(PrivateSample.class).getClass().getEnclosingClass());
+        assertNotEquals(MethodHandleAdapterFactory.class, this.gson.getAdapter(String.class).getClass().getEnclosingClass());
+    }
+
+    @Test
+    public void writesFields() {
+        Sample sample = new Sample();
+        sample.fakeString = null;
+
+        assertEquals("{\"fakeInt\":1,\"fake-renamed\":false,\"fakeBase\":0.0}", this.gson.toJson(sample));
+    }
+
+    @Test
+    public void leavesTypesHandledByGson() {
+        assertNotEquals(MethodHandleAdapterFactory.class, this.gson.getAdapter(ConfigurationParserTest.Flags.class).getClass().getEnclosingClass());
+        assertNotEquals(MethodHandleAdapterFactory.class, this.gson.getAdapter(ConfigurationParserTest.Names.class).getClass().getEnclosingClass());
+        assertNotEquals(MethodHandleAdapterFactory.class, this.gson.getAdapter(WithAdapter.class).getClass().getEnclosingClass());
+
+        ConfigurationParserTest.Flags flags = this.gson.fromJson("{ \"a\":true }", ConfigurationParserTest.Flags.class);
+        assertTrue(flags.get("a"));
+    }
+
+    static class Base {
+        double fakeBase;
+    }
+
+    static class Sample extends Base {
+        int fakeInt = 1;
+        String fakeString = "def";
+        @SerializedName(value = "fake-renamed", alternate = { "fake-alternate" })
+        boolean renamed;
+        List<String> fakeList;
+        Sample fakeNested;
+        transient int fakeTransient;
+        static int fakeStatic;
+    }
+
+    @JsonAdapter(WithAdapter.Adapter.class)
+    static class WithAdapter {
+        static class Adapter extends TypeAdapter<WithAdapter> {
+            @Override
+            public void write(JsonWriter out, WithAdapter value) throws IOException {
+                out.nullValue();
+            }
+
+            @Override
+            public WithAdapter read(JsonReader in) throws IOException {
+                in.skipValue();
+                return new WithAdapter();
+            }
+        }
+    }
+
+    public static class PrivateSample {
+        private String fakeKey;
+        private transient boolean constructed;
+
+        private PrivateSample() {
+            this.constructed = true;
+        }
+    }
+}
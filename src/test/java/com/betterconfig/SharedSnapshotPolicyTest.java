@@ -0,0 +1,174 @@
+package com.betterconfig;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedSnapshotPolicyTest {
+    private MockWebServer server;
+    private Path directory;
+    private Path sharedFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.server = new MockWebServer();
+        this.server.start();
+        this.directory = Files.createTempDirectory("betterconfig");
+        this.sharedFile = this.directory.resolve("config.shared");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.server.shutdown();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.forEach(path -> path.toFile().delete());
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void followerReadsWithoutFetching() throws Exception {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test").setHeader("ETag", "fakeETag"));
+
+        SharedSnapshotPolicy leader = this.createPolicy(null);
+        assertEquals("test", leader.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+
+        AtomicReference<String> newConfig = new AtomicReference<>();
+        SharedSnapshotPolicy follower = this.createPolicy((parser, newConfiguration) -> newConfig.set(newConfiguration));
+        assertEquals("test", follower.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+
+        assertTrue(leader.isLeader());
+        assertFalse(follower.isLeader());
+        assertEquals("test", newConfig.get());
+        assertEquals(1, this.server.getRequestCount());
+
+        follower.close();
+        leader.close();
+    }
+
+    @Test
+    public void followerSeesNewConfiguration() throws Exception {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test"));
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test2"));
+
+        SharedSnapshotPolicy leader = this.createPolicy(null);
+        SharedSnapshotPolicy follower = this.createPolicy(null);
+        assertEquals("test", follower.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+
+        leader.refreshAsync().get();
+
+        //wait for the region check
+        Thread.sleep(200);
+
+        assertEquals("test2", follower.getConfigurationJsonAsync().get());
+
+        follower.close();
+        leader.close();
+    }
+
+    @Test
+    public void followerTakesOverWhenLeaderCloses() throws Exception {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test").setHeader("ETag", "fakeETag"));
+        this.server.enqueue(new MockResponse().setResponseCode(304));
+
+        SharedSnapshotPolicy leader = this.createPolicy(null);
+        SharedSnapshotPolicy follower = this.createPolicy(null);
+        assertEquals("test", follower.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+
+        leader.close();
+
+        //wait for the election
+        Thread.sleep(300);
+
+        assertTrue(follower.isLeader());
+        assertEquals("test", follower.getConfigurationJsonAsync().get());
+
+        this.server.takeRequest();
+        assertEquals("fakeETag", this.server.takeRequest().getHeader("If-None-Match"));
+
+        follower.close();
+    }
+
+    @Test
+    public void leaderPublishesPrimedCacheOnNotModified() throws Exception {
+        this.server.enqueue(new MockResponse().setResponseCode(304));
+        InMemoryConfigCache cache = new InMemoryConfigCache();
+        cache.set("test", "fakeETag");
+
+        SharedSnapshotPolicy leader = this.createPolicy(null, cache);
+        assertEquals("test", leader.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+        SharedSnapshotPolicy follower = this.createPolicy(null);
+
+        assertEquals("test", follower.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+        assertTrue(leader.isLeader());
+        assertEquals("fakeETag", this.server.takeRequest().getHeader("If-None-Match"));
+
+        follower.close();
+        leader.close();
+    }
+
+    @Test
+    public void leaderPublishesPrimedCacheOnUnchangedFetch() throws Exception {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setBody("test"));
+        InMemoryConfigCache cache = new InMemoryConfigCache();
+        cache.set("test", null);
+
+        SharedSnapshotPolicy leader = this.createPolicy(null, cache);
+        assertEquals("test", leader.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+        SharedSnapshotPolicy follower = this.createPolicy(null);
+
+        assertEquals("test", follower.getConfigurationJsonAsync().get(5, TimeUnit.SECONDS));
+        assertEquals(1, this.server.getRequestCount());
+
+        follower.close();
+        leader.close();
+    }
+
+    @Test
+    public void regionRejectsTooLargeValue() throws IOException {
+        SharedSnapshotRegion region = new SharedSnapshotRegion(this.sharedFile, 4);
+
+        assertThrows(IllegalArgumentException.class, () -> region.write("too large", null));
+        assertNull(region.read());
+
+        region.write("fit", null);
+        assertEquals("fit", region.read().value);
+
+        region.close();
+    }
+
+    @Test
+    public void ensuresSharedFileIsSet() {
+        assertThrows(IllegalArgumentException.class, () -> SharedSnapshotPolicy.newBuilder()
+                .build(new ConfigFetcher(new OkHttpClient.Builder().build(), ""), new InMemoryConfigCache()));
+    }
+
+    private SharedSnapshotPolicy createPolicy(ConfigurationChangeListener listener) {
+        return this.createPolicy(listener, new InMemoryConfigCache());
+    }
+
+    private SharedSnapshotPolicy createPolicy(ConfigurationChangeListener listener, ConfigCache cache) {
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), "");
+        fetcher.setUrl(this.server.url("/").toString());
+        SharedSnapshotPolicy.Builder builder = SharedSnapshotPolicy.newBuilder()
+                .sharedFile(this.sharedFile)
+                .regionCheckIntervalInMillis(50);
+
+        if(listener != null)
+            builder.configurationChangeListener(listener);
+
+        return builder.build(fetcher, cache);
+    }
+}
@@ -0,0 +1,37 @@
+package com.betterconfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StableBooleanTest {
+
+    @Test
+    public void followsPublishedValue() throws Throwable {
+        LiveValues values = new LiveValues();
+        StableBoolean handle = values.register(new StableBoolean("fakeKey", false), () -> null);
+        MethodHandle invoker = handle.invoker();
+
+        assertEquals(MethodType.methodType(boolean.class), invoker.type());
+        assertFalse((boolean) invoker.invokeExact());
+
+        values.publish(() -> ConfigSnapshot.fromJson("{ \"fakeKey\":true }"));
+        assertTrue(handle.get());
+        assertTrue((boolean) invoker.invokeExact());
+
+        values.publish(() -> ConfigSnapshot.fromJson("{ \"fakeKey\":\"fakeText\" }"));
+        assertFalse(handle.get());
+    }
+
+    @Test
+    public void startsFromSnapshot() {
+        LiveValues values = new LiveValues();
+        StableBoolean handle = values.register(new StableBoolean("fakeKey", false), () -> ConfigSnapshot.fromJson("{ \"fakeKey\":true }"));
+
+        assertTrue(handle.get());
+        assertEquals("fakeKey", handle.key());
+    }
+}
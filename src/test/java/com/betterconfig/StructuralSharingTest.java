@@ -0,0 +1,73 @@
+package com.betterconfig;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructuralSharingTest {
+    private final JsonParser parser = new JsonParser();
+
+    @Test
+    public void reusesUnchangedValues() {
+        JsonElement previous = this.parser.parse("{ \"a\":{ \"b\":[1, 2] }, \"c\":\"d\", \"e\":{ \"f\":1 } }");
+        JsonElement next = this.parser.parse("{ \"a\":{ \"b\":[1, 2] }, \"c\":\"d\", \"e\":{ \"f\":2 } }");
+
+        JsonObject shared = StructuralSharing.share(next, previous).getAsJsonObject();
+
+        assertEquals(next, shared);
+        assertSame(previous.getAsJsonObject().get("a"), shared.get("a"));
+        assertSame(previous.getAsJsonObject().get("c"), shared.get("c"));
+        assertNotSame(previous.getAsJsonObject().get("e"), shared.get("e"));
+    }
+
+    @Test
+    public void returnsPreviousWhenNothingChanged() {
+        JsonElement previous = this.parser.parse("{ \"a\":[{ \"b\":null }], \"c\":true }");
+
+        assertSame(previous, StructuralSharing.share(this.parser.parse("{ \"a\":[{ \"b\":null }], \"c\":true }"), previous));
+    }
+
+    @Test
+    public void comparesNumbersExactly() {
+        JsonElement previous = this.parser.parse("{ \"big\":9007199254740992, \"decimal\":0.10000000000000001, \"same\":1.5 }");
+        JsonElement next = this.parser.parse("{ \"big\":9007199254740993, \"decimal\":0.1, \"same\":1.5 }");
+
+        JsonObject shared = StructuralSharing.share(next, previous).getAsJsonObject();
+
+        assertEquals("9007199254740993", shared.get("big").getAsString());
+        assertEquals("0.1", shared.get("decimal").getAsString());
+        assertSame(previous.getAsJsonObject().get("same"), shared.get("same"));
+    }
+
+    @Test
+    public void comparesPrimitivesByKind() {
+        JsonElement previous = this.parser.parse("{ \"a\":\"1\", \"b\":\"true\" }");
+        JsonElement next = this.parser.parse("{ \"a\":1, \"b\":true }");
+
+        JsonObject shared = StructuralSharing.share(next, previous).getAsJsonObject();
+
+        assertTrue(shared.get("a").getAsJsonPrimitive().isNumber());
+        assertTrue(shared.get("b").getAsJsonPrimitive().isBoolean());
+    }
+
+    @Test
+    public void internsStrings() {
+        JsonObject shared = StructuralSharing.share(this.parser.parse("{ \"a\":\"value\", \"b\":\"value\" }"), null).getAsJsonObject();
+
+        assertSame(shared.get("a"), shared.get("b"));
+    }
+
+    @Test
+    public void snapshotsOfCacheShareValues() throws ParsingFailedException {
+        ConfigCache cache = new InMemoryConfigCache();
+
+        ConfigSnapshot first = cache.snapshot("{ \"a\":{ \"b\":\"c\" }, \"d\":1 }");
+        ConfigSnapshot second = cache.snapshot("{ \"a\":{ \"b\":\"c\" }, \"d\":2 }");
+
+        assertSame(first.get("a"), second.get("a"));
+        assertEquals(2, second.get("d").getAsInt());
+    }
+}
@@ -0,0 +1,179 @@
+package com.betterconfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TieredConfigCacheTest {
+
+    @Test
+    public void readsAreServedFromSnapshot() {
+        CountingCache l2 = new CountingCache();
+        l2.set("test", "fakeETag");
+        TieredConfigCache cache = new TieredConfigCache(l2, 60);
+
+        assertEquals("test", cache.get());
+        assertEquals("test", cache.get());
+        assertEquals("test", cache.get());
+
+        assertEquals(1, l2.reads.get());
+    }
+
+    @Test
+    public void reloadsWhenStampChanges() throws Exception {
+        CountingCache l2 = new CountingCache();
+        l2.set("test", "fakeETag");
+        TieredConfigCache cache = new TieredConfigCache(l2, 0);
+
+        assertEquals("test", cache.get());
+        assertEquals("test", cache.getAsync().get());
+        assertEquals(1, l2.reads.get());
+
+        // another writer replaces the value in the shared cache
+        l2.set("test2", "fakeETag2");
+
+        assertEquals("test2", cache.getAsync().get());
+        assertEquals("fakeETag2", cache.getETag());
+        assertEquals(2, l2.reads.get());
+    }
+
+    @Test
+    public void missingStampsAreEqual() {
+        CountingCache l2 = new CountingCache();
+        l2.set("test", null);
+        TieredConfigCache cache = new TieredConfigCache(l2, 0);
+
+        assertEquals("test", cache.get());
+        assertEquals("test", cache.get());
+        assertEquals("test", cache.get());
+
+        assertEquals(1, l2.reads.get());
+    }
+
+    @Test
+    public void onlyTheValidatorReleasesTheValidation() throws Exception {
+        GatedCache l2 = new GatedCache();
+        TieredConfigCache cache = new TieredConfigCache(l2, 0);
+
+        // both readers find no snapshot, the first one takes over the validation
+        Thread validator = new Thread(cache::get);
+        validator.start();
+        l2.entered.acquire();
+
+        Thread loader = new Thread(cache::get);
+        loader.start();
+        l2.entered.acquire();
+
+        cache.set("test", "fakeETag");
+
+        l2.gates[1].countDown();
+        loader.join();
+
+        try {
+            // the validation is still in progress, so this read is served from the snapshot
+            assertEquals("test", cache.get());
+            assertEquals(2, l2.eTagReads.get());
+        } finally {
+            l2.gates[0].countDown();
+            validator.join();
+        }
+    }
+
+    @Test
+    public void writesGoThroughBothTiers() throws Exception {
+        CountingCache l2 = new CountingCache();
+        TieredConfigCache cache = new TieredConfigCache(l2, 60);
+
+        cache.set("test", "fakeETag");
+        cache.setAsync("test2", "fakeETag2").get();
+
+        assertEquals("test2", l2.inMemoryValue());
+        assertEquals("test2", cache.get());
+        assertEquals("fakeETag2", cache.getETag());
+        assertEquals(0, l2.reads.get());
+    }
+
+    @Test
+    public void failingL2FallsBackToSnapshot() {
+        TieredConfigCache cache = new TieredConfigCache(new FailingCache(), 0);
+        cache.set("test", "fakeETag");
+
+        assertEquals("test", cache.get());
+    }
+
+    @Test
+    public void clientWrapsCustomCache() throws IOException {
+        CountingCache l2 = new CountingCache();
+        BetterConfigClient client = BetterConfigClient.newBuilder()
+                .cache(l2)
+                .refreshPolicy((fetcher, cache) -> {
+                    assertTrue(cache instanceof TieredConfigCache);
+                    assertSame(l2, ((TieredConfigCache) cache).l2());
+                    return new ManualPollingPolicy(fetcher, cache);
+                })
+                .build("secret");
+
+        assertNotNull(client.getRefreshPolicy(ManualPollingPolicy.class));
+
+        client.close();
+    }
+
+    @Test
+    public void throwsWhenArgumentsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new TieredConfigCache(null));
+        assertThrows(IllegalArgumentException.class, () -> new TieredConfigCache(new InMemoryConfigCache(), -1));
+    }
+
+    private static class CountingCache extends ConfigCache {
+        private final AtomicInteger reads = new AtomicInteger();
+        private volatile String value;
+        private volatile String eTag;
+
+        @Override
+        protected String read() {
+            this.reads.incrementAndGet();
+            return this.value;
+        }
+
+        @Override
+        protected String readETag() {
+            return this.eTag;
+        }
+
+        @Override
+        protected void write(String value) {
+            this.write(value, null);
+        }
+
+        @Override
+        protected void write(String value, String eTag) {
+            this.value = value;
+            this.eTag = eTag;
+        }
+    }
+
+    private static class GatedCache extends CountingCache {
+        private final AtomicInteger eTagReads = new AtomicInteger();
+        private final Semaphore entered = new Semaphore(0);
+        private final CountDownLatch[] gates = { new CountDownLatch(1), new CountDownLatch(1) };
+
+        @Override
+        protected String readETag() {
+            int read = this.eTagReads.getAndIncrement();
+            if(read < this.gates.length) {
+                this.entered.release();
+                try {
+                    this.gates[read].await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.readETag();
+        }
+    }
+}
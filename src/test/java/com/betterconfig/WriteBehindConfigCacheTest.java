@@ -0,0 +1,129 @@
+package com.betterconfig;
+
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindConfigCacheTest {
+
+    @Test
+    public void publishesImmediately() throws InterruptedException {
+        SlowCache slow = new SlowCache();
+        WriteBehindConfigCache cache = new WriteBehindConfigCache(slow);
+
+        cache.set("test", "fakeETag");
+
+        assertEquals("test", cache.get());
+        assertEquals("fakeETag", cache.getETag());
+        assertNull(slow.stored);
+
+        slow.latch.countDown();
+        cache.flush();
+
+        assertEquals("test", slow.stored);
+        assertEquals(1, cache.metrics().persistedWrites());
+    }
+
+    @Test
+    public void coalescesPendingWrites() throws InterruptedException {
+        SlowCache slow = new SlowCache();
+        WriteBehindConfigCache cache = new WriteBehindConfigCache(slow);
+
+        cache.set("test", null);
+        // wait until the first write blocks in the slow cache
+        while (slow.writes.isEmpty())
+            Thread.sleep(1);
+
+        cache.set("test2", null);
+        cache.set("test3", null);
+        assertEquals("test3", cache.get());
+
+        slow.latch.countDown();
+        cache.flush();
+
+        assertEquals(3, cache.metrics().requestedWrites());
+        assertEquals(1, cache.metrics().coalescedWrites());
+        assertEquals(2, cache.metrics().persistedWrites());
+        assertEquals("test3", slow.stored);
+        assertEquals(2, slow.writes.size());
+    }
+
+    @Test
+    public void reportsFailuresThroughMetrics() throws InterruptedException {
+        WriteBehindConfigCache cache = new WriteBehindConfigCache(new FailingCache());
+
+        cache.set("test", null);
+        cache.flush();
+
+        assertEquals("test", cache.get());
+        assertEquals(1, cache.metrics().failedWrites());
+        assertNotNull(cache.metrics().lastFailure());
+    }
+
+    @Test
+    public void closeStoresPendingValue() throws Exception {
+        SlowCache slow = new SlowCache();
+        WriteBehindConfigCache cache = new WriteBehindConfigCache(slow);
+
+        cache.set("test", null);
+        slow.latch.countDown();
+        cache.close();
+
+        assertEquals("test", slow.stored);
+
+        cache.set("test2", null);
+        assertEquals("test2", slow.stored);
+        assertEquals(2, cache.metrics().persistedWrites());
+    }
+
+    @Test
+    public void closedWithClient() throws Exception {
+        SlowCache slow = new SlowCache();
+        slow.latch.countDown();
+        WriteBehindConfigCache cache = new WriteBehindConfigCache(slow);
+        MockWebServer server = new MockWebServer();
+        server.start();
+        BetterConfigClient client = BetterConfigClient.newBuilder()
+                .cache(cache)
+                .refreshPolicy((f, c) -> {
+                    f.setUrl(server.url("/").toString());
+                    return new ManualPollingPolicy(f, c);
+                })
+                .build("secret");
+
+        client.close();
+        server.close();
+
+        cache.set("test", null);
+        assertEquals("test", slow.stored);
+    }
+
+    @Test
+    public void throwsWhenDelegateNull() {
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindConfigCache(null));
+    }
+
+    private static class SlowCache extends ConfigCache {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final List<String> writes = new CopyOnWriteArrayList<>();
+        private volatile String stored;
+
+        @Override
+        protected String read() {
+            return this.stored;
+        }
+
+        @Override
+        protected void write(String value) throws InterruptedException {
+            this.writes.add(value);
+            this.latch.await(5, TimeUnit.SECONDS);
+            this.stored = value;
+        }
+    }
+}
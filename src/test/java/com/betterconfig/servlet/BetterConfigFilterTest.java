@@ -0,0 +1,157 @@
+package com.betterconfig.servlet;
+
+import com.betterconfig.ConfigSnapshot;
+import com.betterconfig.ConfigSnapshotScope;
+import com.betterconfig.ConfigurationProvider;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BetterConfigFilterTest {
+
+    @Test
+    public void pinsSnapshotForRequest() throws Exception {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson("{ \"fakeKey\":\"fakeValue\" }");
+        ConfigurationProvider provider = mock(ConfigurationProvider.class);
+        when(provider.getSnapshot()).thenReturn(snapshot);
+
+        FilterChain chain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            assertSame(snapshot, ConfigSnapshotScope.current());
+            assertEquals("fakeValue", ConfigSnapshotScope.current().getValue(String.class, "fakeKey", null));
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        new BetterConfigFilter(provider).doFilter(mock(ServletRequest.class), mock(ServletResponse.class), chain);
+
+        verify(chain).doFilter(any(), any());
+        verify(provider, times(1)).getSnapshot();
+        assertNull(ConfigSnapshotScope.current());
+    }
+
+    @Test
+    public void unpinsSnapshotWhenRequestFails() throws Exception {
+        ConfigurationProvider provider = mock(ConfigurationProvider.class);
+        when(provider.getSnapshot()).thenReturn(ConfigSnapshot.fromJson("{}"));
+
+        FilterChain chain = mock(FilterChain.class);
+        doThrow(new ServletException("fake")).when(chain).doFilter(any(), any());
+
+        BetterConfigFilter filter = new BetterConfigFilter(provider);
+        assertThrows(ServletException.class, () -> filter.doFilter(mock(ServletRequest.class), mock(ServletResponse.class), chain));
+
+        assertNull(ConfigSnapshotScope.current());
+    }
+
+    @Test
+    public void restoresOuterSnapshot() throws Exception {
+        ConfigSnapshot outer = ConfigSnapshot.fromJson("{ \"fakeKey\":\"outer\" }");
+        ConfigSnapshot inner = ConfigSnapshot.fromJson("{ \"fakeKey\":\"inner\" }");
+
+        ConfigSnapshotScope outerScope = ConfigSnapshotScope.open(outer);
+        ConfigSnapshotScope innerScope = ConfigSnapshotScope.open(inner);
+        assertSame(inner, ConfigSnapshotScope.current());
+
+        innerScope.close();
+        assertSame(outer, ConfigSnapshotScope.current());
+
+        outerScope.close();
+        assertNull(ConfigSnapshotScope.current());
+    }
+
+    @Test
+    public void asyncDispatchPinsSameSnapshot() throws Exception {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson("{ \"fakeKey\":\"fakeValue\" }");
+        ConfigurationProvider provider = mock(ConfigurationProvider.class);
+        when(provider.getSnapshot()).thenReturn(snapshot, ConfigSnapshot.fromJson("{}"));
+
+        ServletRequest request = mock(ServletRequest.class);
+        doAnswer(invocation -> when(request.getAttribute(BetterConfigFilter.SNAPSHOT_ATTRIBUTE)).thenReturn(invocation.getArgument(1)))
+                .when(request).setAttribute(eq(BetterConfigFilter.SNAPSHOT_ATTRIBUTE), any());
+
+        FilterChain chain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            assertSame(snapshot, ConfigSnapshotScope.current());
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        BetterConfigFilter filter = new BetterConfigFilter(provider);
+        filter.doFilter(request, mock(ServletResponse.class), chain);
+        filter.doFilter(request, mock(ServletResponse.class), chain);
+
+        assertSame(snapshot, BetterConfigFilter.snapshot(request));
+        verify(chain, times(2)).doFilter(any(), any());
+        verify(provider, times(1)).getSnapshot();
+    }
+
+    @Test
+    public void readsProviderFromServletContext() throws Exception {
+        ConfigSnapshot snapshot = ConfigSnapshot.fromJson("{}");
+        ConfigurationProvider provider = mock(ConfigurationProvider.class);
+        when(provider.getSnapshot()).thenReturn(snapshot);
+
+        ServletContext context = mock(ServletContext.class);
+        when(context.getAttribute("fakeAttribute")).thenReturn(provider);
+        FilterConfig config = mock(FilterConfig.class);
+        when(config.getServletContext()).thenReturn(context);
+        when(config.getInitParameter(BetterConfigFilter.PROVIDER_ATTRIBUTE_PARAM)).thenReturn("fakeAttribute");
+
+        FilterChain chain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            assertSame(snapshot, ConfigSnapshotScope.current());
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        BetterConfigFilter filter = new BetterConfigFilter();
+        filter.init(config);
+        filter.doFilter(mock(ServletRequest.class), mock(ServletResponse.class), chain);
+
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    public void initFailsWithoutProvider() {
+        FilterConfig config = mock(FilterConfig.class);
+        when(config.getServletContext()).thenReturn(mock(ServletContext.class));
+
+        assertThrows(ServletException.class, () -> new BetterConfigFilter().init(config));
+    }
+
+    @Test
+    public void ensuresArgumentsAreNotNull() {
+        assertThrows(IllegalArgumentException.class, () -> new BetterConfigFilter(null));
+        assertThrows(IllegalArgumentException.class, () -> ConfigSnapshotScope.open(null));
+    }
+
+    @Test
+    public void scopeIsClosedOnOwnerThread() throws Exception {
+        ConfigSnapshotScope scope = ConfigSnapshotScope.open(ConfigSnapshot.fromJson("{}"));
+        try {
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    scope.close();
+                } catch (Exception e) {
+                    failure.set(e);
+                }
+            });
+            thread.start();
+            thread.join();
+
+            assertTrue(failure.get() instanceof IllegalStateException);
+        } finally {
+            scope.close();
+        }
+
+        assertNull(ConfigSnapshotScope.current());
+    }
+}